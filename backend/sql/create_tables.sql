@@ -74,6 +74,10 @@ CREATE TABLE `task` (
     `creation_time` datetime(6) NOT NULL,
     `deadline` datetime(6) NOT NULL,
     `is_deadline_notified` tinyint(1) NOT NULL DEFAULT '0',
+    `reminded_offset_minutes` int DEFAULT NULL COMMENT '最近一次截止提醒的提前分钟数',
+    `task_progress` int NOT NULL DEFAULT 0 COMMENT '已完成日志中的最大进度',
+    `last_activity_time` datetime(6) DEFAULT NULL COMMENT '最近一次日志变更时间',
+    `update_time` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) COMMENT '行最后修改时间，增量同步使用',
     `priority` tinyint NOT NULL,
     `task_content` tinytext NOT NULL,
     `task_status` tinyint NOT NULL,
@@ -81,6 +85,9 @@ CREATE TABLE `task` (
     `creator_id` int NOT NULL,
     PRIMARY KEY (`task_id`),
     KEY `FKqc1galw66ryn480v0lygu3n4c` (`creator_id`),
+    KEY `idx_status_deadline` (`task_status`, `deadline`),
+    KEY `idx_creator_status_deadline` (`creator_id`, `task_status`, `deadline`),
+    KEY `idx_creator_update` (`creator_id`, `update_time`),
     CONSTRAINT `FKqc1galw66ryn480v0lygu3n4c` FOREIGN KEY (`creator_id`) REFERENCES `user` (`User_ID`)
 ) ENGINE = InnoDB AUTO_INCREMENT = 3047 DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '任务表';
 
@@ -120,6 +127,7 @@ CREATE TABLE `task_executor_relation` (
     PRIMARY KEY (`relation_id`),
     KEY `FKo3hbkp3gsc059k81abgo7myay` (`executor_id`),
     KEY `FKs2fvemfxbqmgu0c3vojqwadsg` (`task_id`),
+    KEY `idx_executor_task` (`executor_id`, `task_id`),
     CONSTRAINT `FKo3hbkp3gsc059k81abgo7myay` FOREIGN KEY (`executor_id`) REFERENCES `user` (`User_ID`) ON DELETE CASCADE ON UPDATE RESTRICT,
     CONSTRAINT `FKs2fvemfxbqmgu0c3vojqwadsg` FOREIGN KEY (`task_id`) REFERENCES `task` (`task_id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 3026 DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT='任务-负责人关联表';
@@ -135,6 +143,7 @@ CREATE TABLE `log` (
     `log_status` int NOT NULL,
     `log_title` varchar(255) NOT NULL,
     `longitude` double DEFAULT NULL,
+    `geohash` varchar(12) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '由经纬度生成，按区域查询使用',
     `start_time` time(6) DEFAULT NULL,
     `task_progress` int NOT NULL,
     `update_time` datetime(6) NOT NULL,
@@ -143,6 +152,10 @@ CREATE TABLE `log` (
     PRIMARY KEY (`log_id`),
     KEY `FK3wxdofviqe2smmvh1w1yf98o1` (`user_id`),
     KEY `FK4e8v3emcgfqulikhgmp5xfj9q` (`task_id`),
+    KEY `idx_user_log_date` (`user_id`, `log_date`),
+    KEY `idx_task_progress_id` (`task_id`, `task_progress`, `log_id`),
+    KEY `idx_user_update` (`user_id`, `update_time`, `log_id`),
+    KEY `idx_geohash_date` (`geohash`, `log_date`),
     CONSTRAINT `FK3wxdofviqe2smmvh1w1yf98o1` FOREIGN KEY (`user_id`) REFERENCES `user` (`User_ID`),
     CONSTRAINT `FK4e8v3emcgfqulikhgmp5xfj9q` FOREIGN KEY (`task_id`) REFERENCES `task` (`task_id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 5527 DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '日志表';
@@ -153,10 +166,12 @@ CREATE TABLE `log_file` (
     `file_size` bigint NOT NULL,
     `file_type` varchar(255) NOT NULL,
     `log_id` int DEFAULT NULL,
+    `uploader_id` int DEFAULT NULL COMMENT '上传者，关联到日志时校验归属',
     `original_name` varchar(255) NOT NULL,
     `storage_path` varchar(255) NOT NULL,
     `upload_time` datetime(6) NOT NULL,
-    PRIMARY KEY (`file_id`)
+    PRIMARY KEY (`file_id`),
+    KEY `idx_log_id` (`log_id`)
 ) ENGINE = InnoDB AUTO_INCREMENT = 57 DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '日志文件附件表';
 
 --12-- 创建评论表
@@ -180,7 +195,9 @@ CREATE TABLE `notification` (
     `receiver_id` int NOT NULL,
     `related_id` int NOT NULL,
     `related_type` varchar(20) NOT NULL,
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    KEY `idx_receiver_time_id` (`receiver_id`, `creation_time`, `id`),
+    KEY `idx_read_time` (`is_read`, `creation_time`)
 ) ENGINE = InnoDB AUTO_INCREMENT = 2679 DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '通知表';
 
 --14-- 创建短链接映射表
@@ -196,4 +213,66 @@ CREATE TABLE `short_url` (
   UNIQUE KEY `uk_short_code` (`short_code`) COMMENT '短码唯一索引',
   KEY `idx_result_id` (`result_id`) COMMENT '分析结果ID索引',
   KEY `idx_expire_time` (`expire_time`) COMMENT '过期时间索引'
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='短链接映射表';
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='短链接映射表';
+
+--15-- 创建推送发件箱表
+CREATE TABLE `push_outbox` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `title` varchar(100) NOT NULL,
+    `content` varchar(500) NOT NULL,
+    `tokens` text NOT NULL COMMENT '接收设备推送token，换行分隔',
+    `status` tinyint NOT NULL DEFAULT 0 COMMENT '0=待投递，2=投递失败',
+    `attempts` int NOT NULL DEFAULT 0,
+    `next_attempt_time` datetime(6) NOT NULL,
+    `creation_time` datetime(6) NOT NULL,
+    `last_error` varchar(500) DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '推送发件箱表';
+
+--16-- 创建表生成器ID分配表
+CREATE TABLE `id_generator` (
+    `gen_name` varchar(64) NOT NULL,
+    `next_val` bigint NOT NULL,
+    PRIMARY KEY (`gen_name`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '表生成器ID分段分配表';
+
+--17-- 创建删除墓碑表
+CREATE TABLE `sync_tombstone` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `entity_type` varchar(32) NOT NULL,
+    `entity_id` int NOT NULL,
+    `user_id` int NOT NULL COMMENT '被删除数据的所属用户',
+    `deleted_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_user_deleted_time` (`user_id`, `deleted_time`, `id`),
+    KEY `idx_deleted_time` (`deleted_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '删除墓碑表（增量同步）';
+
+--18-- 创建分片上传会话表与分片表
+CREATE TABLE `upload_session` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `uploader_id` int NOT NULL,
+    `original_name` varchar(255) NOT NULL,
+    `file_type` varchar(255) NOT NULL,
+    `file_size` bigint NOT NULL,
+    `part_size` bigint NOT NULL,
+    `total_parts` int NOT NULL,
+    `storage_path` varchar(255) NOT NULL COMMENT 'COS 对象键',
+    `cos_upload_id` varchar(255) NOT NULL COMMENT 'COS 分片上传ID',
+    `status` int NOT NULL COMMENT '0上传中，1已完成，2已取消',
+    `file_id` int DEFAULT NULL COMMENT '完成后生成的日志附件ID',
+    `creation_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_status_creation` (`status`, `creation_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '分片上传会话表';
+CREATE TABLE `upload_part` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `session_id` bigint NOT NULL,
+    `part_number` int NOT NULL,
+    `etag` varchar(64) NOT NULL,
+    `part_size` bigint NOT NULL,
+    `upload_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_session_part` (`session_id`, `part_number`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '分片上传已完成分片表';
@@ -22,7 +22,8 @@ INSERT INTO `permission` (`Permission_Name`, `Permission_Description`) VALUES
 ('task:update', '更新任务'),
 ('task:query', '查询任务'),
 ('log:create', '创建日志'),
-('log:query', '查询日志');
+('log:query', '查询日志'),
+('SEARCH_REINDEX', '重建全文检索索引');
 
 -- 插入用户表数据（密码均为123456加密后的结果）
 INSERT INTO `user` (`Role_ID`, `Dept_ID`, `User_Name`, `Password`, `Phone_Number`, `Email`) VALUES
@@ -39,7 +40,7 @@ INSERT INTO `role_permission_relation` (`Role_ID`, `Permission_ID`) VALUES
 -- 管理员拥有所有权限
 (1, 1), (1, 2), (1, 3), (1, 4),
 (1, 5), (1, 6), (1, 7), (1, 8),
-(1, 9), (1, 10),
+(1, 9), (1, 10), (1, 11),
 -- 部门主管权限
 (2, 4), (2, 5), (2, 6), (2, 7), (2, 8), (2, 9), (2, 10),
 -- 普通员工权限
@@ -77,6 +78,9 @@ INSERT INTO `log` (`User_ID`, `Task_ID`, `Log_Content`, `Task_Progress`, `Log_Da
 (2, 2, '编写数据库文档', '100%', '2023-11-26'),
 (6, 3, '收集市场数据，开始制定计划', '30%', '2023-11-29');
 
+-- 日志ID由表生成器按段（50）分配，初始值须大于现有最大日志ID加段长
+INSERT INTO `id_generator` (`gen_name`, `next_val`) SELECT 'log', COALESCE(MAX(`Log_ID`), 0) + 100 FROM `log`;
+
 -- 插入AI分析结果表数据
 INSERT INTO `ai_analysis_result` (`User_ID`, `Keyword_Imformation`, `Trend_Analysis`, `Task_List`, `Constructive_Suggestions`, `Analysis_Date`) VALUES
 (1, '{"keywords": ["用户管理", "权限控制", "任务分配"]}', '{"趋势": "任务完成率呈上升趋势，上周完成率80%"}', '[{"task": "优化权限管理模块", "priority": "高"}, {"task": "完善任务统计功能", "priority": "中"}]', '建议增加任务提醒功能，提高任务按时完成率', '2023-11-29'),
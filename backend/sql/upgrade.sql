@@ -0,0 +1,110 @@
+-- 已有数据库的增量变更，按顺序执行（新库直接使用 create_tables.sql 即可）
+
+--1-- 推送发件箱表
+CREATE TABLE `push_outbox` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `title` varchar(100) NOT NULL,
+    `content` varchar(500) NOT NULL,
+    `tokens` text NOT NULL COMMENT '接收设备推送token，换行分隔',
+    `status` tinyint NOT NULL DEFAULT 0 COMMENT '0=待投递，2=投递失败',
+    `attempts` int NOT NULL DEFAULT 0,
+    `next_attempt_time` datetime(6) NOT NULL,
+    `creation_time` datetime(6) NOT NULL,
+    `last_error` varchar(500) DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '推送发件箱表';
+
+--2-- 通知收件箱游标分页索引
+ALTER TABLE `notification` ADD KEY `idx_receiver_time_id` (`receiver_id`, `creation_time`, `id`);
+
+--3-- 已读通知清理索引
+ALTER TABLE `notification` ADD KEY `idx_read_time` (`is_read`, `creation_time`);
+
+--4-- 任务截止提醒：支持多个提醒时间点，截止时间扫描索引
+ALTER TABLE `task` ADD COLUMN `reminded_offset_minutes` int DEFAULT NULL COMMENT '最近一次截止提醒的提前分钟数' AFTER `is_deadline_notified`;
+ALTER TABLE `task` ADD KEY `idx_status_deadline` (`task_status`, `deadline`);
+
+--5-- 任务进度与最近活动时间（由日志写入维护），并按现有日志回填
+ALTER TABLE `task` ADD COLUMN `task_progress` int NOT NULL DEFAULT 0 COMMENT '已完成日志中的最大进度' AFTER `reminded_offset_minutes`;
+ALTER TABLE `task` ADD COLUMN `last_activity_time` datetime(6) DEFAULT NULL COMMENT '最近一次日志变更时间' AFTER `task_progress`;
+UPDATE `task` t SET
+    t.`task_progress` = (SELECT COALESCE(MAX(l.`task_progress`), 0) FROM `log` l WHERE l.`task_id` = t.`task_id` AND l.`log_status` = 1),
+    t.`last_activity_time` = (SELECT MAX(l.`update_time`) FROM `log` l WHERE l.`task_id` = t.`task_id`);
+
+--6-- 任务列表按创建者/执行者过滤、按截止时间排序分页的索引
+ALTER TABLE `task` ADD KEY `idx_creator_status_deadline` (`creator_id`, `task_status`, `deadline`);
+ALTER TABLE `task_executor_relation` ADD KEY `idx_executor_task` (`executor_id`, `task_id`);
+
+--7-- 全文检索索引重建权限，授予管理员
+INSERT INTO `permission` (`Permission_Name`, `Permission_Description`) VALUES ('SEARCH_REINDEX', '重建全文检索索引');
+INSERT INTO `role_permission_relation` (`Role_ID`, `Permission_ID`)
+SELECT r.`Role_ID`, p.`Permission_ID` FROM `role` r, `permission` p WHERE r.`Role_Name` = '管理员' AND p.`Permission_Name` = 'SEARCH_REINDEX';
+
+--8-- 日历视图按用户与日期范围查询日志的索引
+ALTER TABLE `log` ADD KEY `idx_user_log_date` (`user_id`, `log_date`);
+
+--9-- 任务时间线按进度游标分页的索引
+ALTER TABLE `log` ADD KEY `idx_task_progress_id` (`task_id`, `task_progress`, `log_id`);
+
+--10-- 日志ID改为表生成器分段分配（段长50），支持批量插入；初始值须大于现有最大日志ID加段长
+CREATE TABLE `id_generator` (
+    `gen_name` varchar(64) NOT NULL,
+    `next_val` bigint NOT NULL,
+    PRIMARY KEY (`gen_name`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '表生成器ID分段分配表';
+INSERT INTO `id_generator` (`gen_name`, `next_val`) SELECT 'log', COALESCE(MAX(`log_id`), 0) + 100 FROM `log`;
+
+--11-- 增量同步：任务行修改时间（数据库自动维护）、日志修改时间索引、删除墓碑表
+ALTER TABLE `task` ADD COLUMN `update_time` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) COMMENT '行最后修改时间，增量同步使用' AFTER `last_activity_time`;
+UPDATE `task` SET `update_time` = GREATEST(`creation_time`, COALESCE(`last_activity_time`, `creation_time`), COALESCE(`completion_time`, `creation_time`));
+ALTER TABLE `task` ADD KEY `idx_creator_update` (`creator_id`, `update_time`);
+ALTER TABLE `log` ADD KEY `idx_user_update` (`user_id`, `update_time`, `log_id`);
+CREATE TABLE `sync_tombstone` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `entity_type` varchar(32) NOT NULL,
+    `entity_id` int NOT NULL,
+    `user_id` int NOT NULL COMMENT '被删除数据的所属用户',
+    `deleted_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_user_deleted_time` (`user_id`, `deleted_time`, `id`),
+    KEY `idx_deleted_time` (`deleted_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '删除墓碑表（增量同步）';
+
+--12-- 日志位置 Geohash 列与索引，按已有经纬度回填（与应用写入的9位编码一致）
+ALTER TABLE `log` ADD COLUMN `geohash` varchar(12) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '由经纬度生成，按区域查询使用' AFTER `longitude`;
+UPDATE `log` SET `geohash` = ST_GeoHash(`longitude`, `latitude`, 9)
+WHERE `latitude` BETWEEN -90 AND 90 AND `longitude` BETWEEN -180 AND 180;
+ALTER TABLE `log` ADD KEY `idx_geohash_date` (`geohash`, `log_date`);
+
+--13-- 日志附件记录上传者，附件按日志ID批量关联/解除关联
+ALTER TABLE `log_file` ADD COLUMN `uploader_id` int DEFAULT NULL COMMENT '上传者，关联到日志时校验归属' AFTER `log_id`;
+ALTER TABLE `log_file` ADD KEY `idx_log_id` (`log_id`);
+
+--14-- 日志附件分片上传：会话表与已上传分片表
+CREATE TABLE `upload_session` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `uploader_id` int NOT NULL,
+    `original_name` varchar(255) NOT NULL,
+    `file_type` varchar(255) NOT NULL,
+    `file_size` bigint NOT NULL,
+    `part_size` bigint NOT NULL,
+    `total_parts` int NOT NULL,
+    `storage_path` varchar(255) NOT NULL COMMENT 'COS 对象键',
+    `cos_upload_id` varchar(255) NOT NULL COMMENT 'COS 分片上传ID',
+    `status` int NOT NULL COMMENT '0上传中，1已完成，2已取消',
+    `file_id` int DEFAULT NULL COMMENT '完成后生成的日志附件ID',
+    `creation_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_status_creation` (`status`, `creation_time`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '分片上传会话表';
+CREATE TABLE `upload_part` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `session_id` bigint NOT NULL,
+    `part_number` int NOT NULL,
+    `etag` varchar(64) NOT NULL,
+    `part_size` bigint NOT NULL,
+    `upload_time` datetime(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_session_part` (`session_id`, `part_number`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci COMMENT = '分片上传已完成分片表';
@@ -0,0 +1,17 @@
+package com.nullworking.common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在控制器方法参数上，注入当前登录用户
+ * 参数类型可以是 JwtPrincipal（完整信息）或 Integer（仅用户ID），未登录时注入 null
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
@@ -0,0 +1,39 @@
+package com.nullworking.common;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * JWT 解析后的当前登录用户信息
+ * 由 JwtRequestFilter 在每个请求中只解析一次，并存入 SecurityContext
+ */
+public class JwtPrincipal implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Integer userId;
+    private final String userName;
+    private final Date issuedAt;
+
+    public JwtPrincipal(Integer userId, String userName, Date issuedAt) {
+        this.userId = userId;
+        this.userName = userName;
+        this.issuedAt = issuedAt;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    @Override
+    public String toString() {
+        return userName;
+    }
+}
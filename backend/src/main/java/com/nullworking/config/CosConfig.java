@@ -4,6 +4,8 @@ import com.qcloud.cos.COSClient;
 import com.qcloud.cos.ClientConfig;
 import com.qcloud.cos.auth.BasicCOSCredentials;
 import com.qcloud.cos.auth.COSCredentials;
+import com.qcloud.cos.endpoint.EndpointBuilder;
+import com.qcloud.cos.http.HttpProtocol;
 import com.qcloud.cos.region.Region;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -24,12 +26,33 @@ public class CosConfig {
     @Value("${tencent.cos.bucketName}")
     private String bucketName;
 
+    // 可选：指定访问域名与协议，用于本地的 COS/S3 兼容服务做联调测试
+    @Value("${tencent.cos.endpoint:}")
+    private String endpoint;
+
+    @Value("${tencent.cos.https:true}")
+    private boolean https;
+
     @Bean
     public COSClient cosClient() {
         // 1 初始化用户身份信息（secretId, secretKey）。
         COSCredentials cred = new BasicCOSCredentials(secretId, secretKey);
         // 2 设置 bucket 的地域
         ClientConfig clientConfig = new ClientConfig(new Region(region));
+        if (!endpoint.isBlank()) {
+            clientConfig.setEndpointBuilder(new EndpointBuilder() {
+                @Override
+                public String buildGeneralApiEndpoint(String bucketName) {
+                    return endpoint;
+                }
+
+                @Override
+                public String buildGetServiceApiEndpoint() {
+                    return endpoint;
+                }
+            });
+        }
+        clientConfig.setHttpProtocol(https ? HttpProtocol.https : HttpProtocol.http);
         // 3 生成 cos 客户端。
         return new COSClient(cred, clientConfig);
     }
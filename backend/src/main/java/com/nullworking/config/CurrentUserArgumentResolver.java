@@ -0,0 +1,39 @@
+package com.nullworking.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.nullworking.common.CurrentUser;
+import com.nullworking.common.JwtPrincipal;
+import com.nullworking.util.JwtUtil;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 解析 @CurrentUser 参数，直接复用 JwtRequestFilter 的解析结果，控制器无需再次解析 token
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return JwtPrincipal.class.equals(type) || Integer.class.equals(type);
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        JwtPrincipal principal = JwtUtil.currentPrincipal(webRequest.getNativeRequest(HttpServletRequest.class));
+        if (Integer.class.equals(parameter.getParameterType())) {
+            return principal != null ? principal.getUserId() : null;
+        }
+        return principal;
+    }
+}
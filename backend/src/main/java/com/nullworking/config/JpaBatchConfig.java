@@ -0,0 +1,53 @@
+package com.nullworking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hibernate JDBC 批处理配置：同类插入/更新按批次合并发送
+ * 配置文件中已显式设置的同名属性优先
+ * MySQL 驱动默认仍逐条发送批内语句，需开启 rewriteBatchedStatements 才会改写为多值 INSERT；
+ * 连接串未指定该参数时在此自动开启，Hibernate 批处理与 JdbcTemplate.batchUpdate 均依赖它。
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    private static final String REWRITE_BATCHED_STATEMENTS = "rewriteBatchedStatements";
+
+    @Value("${jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor mysqlBatchRewriteConfigurer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    String url = dataSource.getJdbcUrl();
+                    if (url != null && url.startsWith("jdbc:mysql:")) {
+                        if (!url.contains(REWRITE_BATCHED_STATEMENTS)) {
+                            dataSource.addDataSourceProperty(REWRITE_BATCHED_STATEMENTS, "true");
+                        } else if (!url.contains(REWRITE_BATCHED_STATEMENTS + "=true")) {
+                            System.err.println("数据库连接串未开启 " + REWRITE_BATCHED_STATEMENTS + "，批量写入将逐条发送");
+                        }
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
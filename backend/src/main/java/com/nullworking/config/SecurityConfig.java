@@ -23,6 +23,7 @@ import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -40,8 +41,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Enable CORS
             .authorizeHttpRequests(authorize -> authorize
+                // 异步请求（如分片上传）的结果派发不再经过 JWT 过滤器，原请求已完成鉴权
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**",
+                                 "/ws/**", // WebSocket 握手放行，鉴权在 STOMP CONNECT 帧中完成
                                  "/swagger-ui/**",
                                  "/v3/api-docs/**",
                                  "/swagger-resources/**",
@@ -0,0 +1,68 @@
+package com.nullworking.config;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import com.nullworking.common.JwtPrincipal;
+import com.nullworking.service.UserDetailsCache;
+import com.nullworking.util.JwtUtil;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * STOMP 连接鉴权：CONNECT 帧校验 JWT 与在职状态，会话用户名为用户ID，供 convertAndSendToUser 路由
+ * 只允许订阅自己的 /user/** 目的地；服务端只推送、没有 @MessageMapping 处理器，客户端的 SEND 帧一律拒绝，
+ * 防止向他人的通知队列或其他代理目的地注入消息
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
+            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+                throw new MessageDeliveryException("未授权，请登录");
+            }
+            try {
+                JwtPrincipal principal = jwtUtil.parseToken(authorizationHeader.substring(7));
+                userDetailsCache.get(principal.getUserName());
+                String userId = String.valueOf(principal.getUserId());
+                Principal user = () -> userId;
+                accessor.setUser(user);
+            } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                throw new MessageDeliveryException("Token无效或已过期");
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith("/user/")) {
+                throw new MessageDeliveryException("无权限订阅该频道");
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            throw new MessageDeliveryException("不支持客户端发送消息");
+        }
+        return message;
+    }
+}
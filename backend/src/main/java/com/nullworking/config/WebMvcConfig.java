@@ -0,0 +1,25 @@
+package com.nullworking.config;
+
+import java.util.List;
+
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.nullworking.common.CurrentUser;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    static {
+        // @CurrentUser 参数由服务端注入，不在 Swagger 文档中展示
+        SpringDocUtils.getConfig().addAnnotationsToIgnore(CurrentUser.class);
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
@@ -0,0 +1,90 @@
+package com.nullworking.controller;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.common.CurrentUser;
+import com.nullworking.model.dto.ChunkedUploadInitRequest;
+import com.nullworking.service.ChunkedUploadService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/log-files/uploads")
+public class ChunkedUploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Operation(summary = "初始化分片上传", description = "用于大文件（视频、照片）上传，返回uploadId、partSize（分片大小）、totalParts（分片数）；随后按分片号上传各分片，可并行，最后调用合并接口")
+    @PostMapping("")
+    public ApiResponse<Map<String, Object>> initUpload(
+            @Parameter(description = "分片上传初始化请求体") @RequestBody ChunkedUploadInitRequest request,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return chunkedUploadService.initUpload(userId, request);
+    }
+
+    @Operation(summary = "查询分片上传状态", description = "返回会话信息与已上传的分片号uploadedParts，断线后据此只补传缺失的分片；status：0上传中，1已完成（fileId为生成的文件ID），2已取消")
+    @GetMapping("/{uploadId}")
+    public ApiResponse<Map<String, Object>> getUpload(
+            @Parameter(description = "上传会话ID") @PathVariable("uploadId") Long uploadId,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return chunkedUploadService.getUpload(userId, uploadId);
+    }
+
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节（application/octet-stream），须带Content-Length，除最后一片外长度必须等于partSize；同一分片可重复上传。返回code：200成功，400分片号或大小错误，404会话不存在，409会话已结束，411缺少Content-Length，503上传繁忙稍后重试")
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public CompletableFuture<ApiResponse<Map<String, Object>>> uploadPart(
+            @Parameter(description = "上传会话ID") @PathVariable("uploadId") Long uploadId,
+            @Parameter(description = "分片号，从1开始") @PathVariable("partNumber") Integer partNumber,
+            HttpServletRequest request,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return CompletableFuture.completedFuture(ApiResponse.error(401, "未授权，请登录"));
+        }
+        // 请求体由服务层在校验 Content-Length 后按分片大小读取，不预先整体读入内存
+        return chunkedUploadService.uploadPart(userId, uploadId, partNumber, request);
+    }
+
+    @Operation(summary = "合并分片", description = "全部分片上传后调用，返回文件ID，创建或更新日志时通过fileIds关联")
+    @PostMapping("/{uploadId}/complete")
+    public ApiResponse<Integer> completeUpload(
+            @Parameter(description = "上传会话ID") @PathVariable("uploadId") Long uploadId,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return chunkedUploadService.completeUpload(userId, uploadId);
+    }
+
+    @Operation(summary = "取消分片上传", description = "取消上传并释放已上传的分片")
+    @DeleteMapping("/{uploadId}")
+    public ApiResponse<Void> abortUpload(
+            @Parameter(description = "上传会话ID") @PathVariable("uploadId") Long uploadId,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return chunkedUploadService.abortUpload(userId, uploadId);
+    }
+}
@@ -1,7 +1,10 @@
 package com.nullworking.controller;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +22,9 @@ import org.springframework.web.bind.annotation.RestController;
 import com.nullworking.common.ApiResponse;
 import com.nullworking.model.dto.LogCreateRequest;
 import com.nullworking.model.dto.LogUpdateRequest;
+import com.nullworking.service.LogLocationService;
 import com.nullworking.service.LogService;
+import com.nullworking.service.LogSummaryService;
 import com.nullworking.util.JwtUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,6 +40,12 @@ public class LogController {
     @Autowired
     private LogService logService;
 
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Autowired
+    private LogLocationService logLocationService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -69,6 +80,18 @@ public class LogController {
         }
     }
 
+    @Operation(summary = "批量创建日志", description = "用于移动端离线日志补传，单次最多200条；逐条校验，失败条目不影响其余条目；任务被同批次日志完成时，该任务的待完成日志按410返回且不写入。返回results（index、code、message、logId）、succeeded、superseded、failed")
+    @PostMapping("/batch")
+    public ApiResponse<Map<String, Object>> createLogs(
+            @Parameter(description = "日志创建请求体列表") @RequestBody List<LogCreateRequest> requests,
+            HttpServletRequest httpRequest) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(httpRequest, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权: 无效的token或用户ID");
+        }
+        return logService.createLogs(requests, userId);
+    }
+
     @Operation(summary = "更新日志", description = "更新指定的日志条目")
     @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "日志更新成功",
             content = @Content(mediaType = "application/json",
@@ -153,6 +176,61 @@ public class LogController {
         return logService.listLogs(userId, start, end);
     }
 
+    @Operation(summary = "日志月度汇总", description = "按天返回指定月份的日志条数（total、pending待完成、completed已完成）与记录分钟数minutes，仅包含有日志的日期；month格式如：2024-10")
+    @GetMapping("/summary")
+    public ApiResponse<Map<String, Object>> logSummary(@Parameter(description = "月份，格式如：2024-10") @RequestParam("month") String monthStr,
+                                                       HttpServletRequest httpRequest) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(httpRequest, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权: 无效的token或用户ID");
+        }
+        YearMonth month;
+        try {
+            month = YearMonth.parse(monthStr.trim(), DateTimeFormatter.ofPattern("yyyy-M"));
+        } catch (DateTimeParseException e) {
+            return ApiResponse.error(400, "月份格式错误");
+        }
+        return logSummaryService.getMonthSummary(userId, month);
+    }
+
+    @Operation(summary = "按位置查询日志", description = "查询日期范围内打卡位置在指定区域内（outside=true 时为区域外）的日志；区域二选一：矩形 minLat/minLng/maxLat/maxLng，或圆形 lat/lng/radius（米，结果附带 distance）。"
+            + "未指定任务时查询自己创建的任务下的日志与本人日志；查询区域外需指定 taskId。最多返回500条，truncated 表示结果被截断")
+    @GetMapping("/location")
+    public ApiResponse<Map<String, Object>> logsByLocation(
+            @Parameter(description = "开始日期，格式如：2024-10-1") @RequestParam("startTime") String startStr,
+            @Parameter(description = "结束日期，格式如：2024-10-31") @RequestParam("endTime") String endStr,
+            @Parameter(description = "任务ID") @RequestParam(value = "taskId", required = false) Integer taskId,
+            @Parameter(description = "矩形区域最小纬度") @RequestParam(value = "minLat", required = false) Double minLat,
+            @Parameter(description = "矩形区域最小经度") @RequestParam(value = "minLng", required = false) Double minLng,
+            @Parameter(description = "矩形区域最大纬度") @RequestParam(value = "maxLat", required = false) Double maxLat,
+            @Parameter(description = "矩形区域最大经度") @RequestParam(value = "maxLng", required = false) Double maxLng,
+            @Parameter(description = "圆心纬度") @RequestParam(value = "lat", required = false) Double lat,
+            @Parameter(description = "圆心经度") @RequestParam(value = "lng", required = false) Double lng,
+            @Parameter(description = "半径（米），最大50000") @RequestParam(value = "radius", required = false) Double radius,
+            @Parameter(description = "是否查询区域外的日志，默认false") @RequestParam(value = "outside", defaultValue = "false") boolean outside,
+            HttpServletRequest httpRequest) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(httpRequest, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权: 无效的token或用户ID");
+        }
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-M-d");
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(startStr.trim(), dateFormatter);
+            end = LocalDate.parse(endStr.trim(), dateFormatter);
+        } catch (DateTimeParseException e) {
+            return ApiResponse.error(400, "日期格式错误");
+        }
+        if (lat != null && lng != null && radius != null) {
+            return logLocationService.findWithinRadius(userId, taskId, start, end, lat, lng, radius, outside);
+        }
+        if (minLat != null && minLng != null && maxLat != null && maxLng != null) {
+            return logLocationService.findInBox(userId, taskId, start, end, minLat, minLng, maxLat, maxLng, outside);
+        }
+        return ApiResponse.error(400, "需提供矩形区域或圆心与半径");
+    }
+
     @Operation(summary = "日志详情", description = "获取指定日志的详细信息，只能查询自己的日志")
     @GetMapping("/{logId}")
     public ApiResponse<Map<String, Object>> logDetails(@PathVariable("logId") Integer logId, HttpServletRequest httpRequest) {
@@ -14,6 +14,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import com.nullworking.common.ApiResponse;
+import com.nullworking.common.CurrentUser;
 import com.nullworking.model.LogFile;
 import com.nullworking.service.LogFileService;
 import com.nullworking.model.dto.FileDownloadInfo;
@@ -43,9 +44,13 @@ public class LogFileController {
             schema = @Schema(implementation = ApiResponse.class)))
     @PostMapping(consumes = {"multipart/form-data"})
     public ResponseEntity<ApiResponse> uploadFile(
-            @Parameter(description = "要上传的文件") @RequestParam("file") MultipartFile file) {
+            @Parameter(description = "要上传的文件") @RequestParam("file") MultipartFile file,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ResponseEntity.status(401).body(ApiResponse.error(401, "未授权，请登录"));
+        }
         try {
-            LogFile logFile = logFileService.storeFile(file);
+            LogFile logFile = logFileService.storeFile(file, userId);
             return ResponseEntity.ok(ApiResponse.success(logFile.getFileId()));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(ApiResponse.error(500,"文件上传失败: " + e.getMessage()));
@@ -1,10 +1,9 @@
 package com.nullworking.controller;
 
 import com.nullworking.common.ApiResponse;
+import com.nullworking.common.CurrentUser;
 import com.nullworking.service.NotificationService;
-import com.nullworking.util.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -21,16 +21,12 @@ import java.util.Map;
 @RequestMapping("/api/notification")
 public class NotificationController {
 
-    @Autowired
-    private JwtUtil jwtUtil;
-
     @Autowired
     private NotificationService notificationService;
 
     @Operation(summary = "获取用户所有通知", description = "从token解析用户ID，查询该用户所有通知，并依靠isRead字段来判别已读状态，按时间从近到远排序")
     @GetMapping("")
-    public ApiResponse<List<Map<String, Object>>> getUserNotifications(HttpServletRequest request) {
-        Integer userId = JwtUtil.extractUserIdFromRequest(request, jwtUtil);
+    public ApiResponse<List<Map<String, Object>>> getUserNotifications(@CurrentUser Integer userId) {
         if (userId == null) {
             return ApiResponse.error(401, "未授权，请登录");
         }
@@ -41,6 +37,38 @@ public class NotificationController {
         }
     }
 
+    @Operation(summary = "分页获取用户通知", description = "游标分页，按创建时间从近到远排序；cursor 为上一页返回的 nextCursor，unreadOnly=true 时只返回未读通知")
+    @GetMapping("/page")
+    public ApiResponse<Map<String, Object>> getNotificationPage(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") Integer size,
+            @RequestParam(value = "unreadOnly", defaultValue = "false") Boolean unreadOnly,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        try {
+            return notificationService.getNotificationPage(userId, cursor, size, unreadOnly);
+        } catch (Exception e) {
+            return ApiResponse.error(500, "服务器错误: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "批量标记通知为已读", description = "不传 cursor 时将全部未读通知标记为已读；传入 cursor 时标记该位置（含）及更早的通知")
+    @PutMapping("/read")
+    public ApiResponse<Map<String, Integer>> markNotificationsAsRead(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        try {
+            return notificationService.markNotificationsAsRead(userId, cursor);
+        } catch (Exception e) {
+            return ApiResponse.error(500, "服务器错误: " + e.getMessage());
+        }
+    }
+
     @Deprecated
     @Operation(summary = "发送华为推送通知示例", description = "接收华为推送标准JSON消息体，并调用华为推送服务发送通知")
     @PostMapping("/send-huawei-push-example")
@@ -57,8 +85,7 @@ public class NotificationController {
     @PutMapping("/{notificationId}/read")
     public ApiResponse<Void> markNotificationAsRead(
             @PathVariable("notificationId") Integer notificationId,
-            HttpServletRequest request) {
-        Integer userId = JwtUtil.extractUserIdFromRequest(request, jwtUtil);
+            @CurrentUser Integer userId) {
         if (userId == null) {
             return ApiResponse.error(401, "未授权，请登录");
         }
@@ -71,8 +98,7 @@ public class NotificationController {
 
     @Operation(summary = "查询用户是否有未读通知", description = "从token解析用户ID，查询该用户是否有未读通知")
     @GetMapping("/unreadStatus")
-    public ApiResponse<Map<String, Boolean>> hasUnreadNotifications(HttpServletRequest request) {
-        Integer userId = JwtUtil.extractUserIdFromRequest(request, jwtUtil);
+    public ApiResponse<Map<String, Boolean>> hasUnreadNotifications(@CurrentUser Integer userId) {
         if (userId == null) {
             return ApiResponse.error(401, "未授权，请登录");
         }
@@ -82,4 +108,17 @@ public class NotificationController {
             return ApiResponse.error(500, "服务器错误: " + e.getMessage());
         }
     }
+
+    @Operation(summary = "查询用户未读通知数", description = "从token解析用户ID，返回该用户的未读通知数量，用于角标显示")
+    @GetMapping("/unreadCount")
+    public ApiResponse<Map<String, Long>> getUnreadCount(@CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        try {
+            return notificationService.getUnreadCount(userId);
+        } catch (Exception e) {
+            return ApiResponse.error(500, "服务器错误: " + e.getMessage());
+        }
+    }
 }
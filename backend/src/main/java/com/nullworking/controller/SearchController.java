@@ -0,0 +1,57 @@
+package com.nullworking.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.common.CurrentUser;
+import com.nullworking.service.PermissionService;
+import com.nullworking.service.SearchIndexService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Operation(summary = "全文检索", description = "按关键词检索任务标题/内容、日志标题/内容与评论内容，只返回当前用户创建或参与的任务下的内容以及自己的日志；结果包含type、id、taskId、logId、title、summary、score")
+    @GetMapping("")
+    public ApiResponse<Map<String, Object>> search(
+            @Parameter(description = "关键词") @RequestParam("keyword") String keyword,
+            @Parameter(description = "类型 (task, log, comment)，为空表示全部") @RequestParam(value = "type", required = false) String type,
+            @Parameter(description = "返回条数，默认20，最大50") @RequestParam(value = "size", required = false) Integer size,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return searchIndexService.search(userId, keyword, type, size);
+    }
+
+    @Operation(summary = "重建全文检索索引", description = "异步全量重建索引，需要SEARCH_REINDEX权限；返回code：200已开始，401未授权，403无权限，409已有重建在进行中")
+    @PostMapping("/reindex")
+    public ApiResponse<String> reindex(@CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        if (!permissionService.hasPermission(userId, SearchIndexService.REINDEX_PERMISSION)) {
+            return ApiResponse.error(403, "无权限重建索引");
+        }
+        if (!searchIndexService.reindexAll()) {
+            return ApiResponse.error(409, "索引重建正在进行中");
+        }
+        return ApiResponse.success("已开始重建索引");
+    }
+}
@@ -0,0 +1,35 @@
+package com.nullworking.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.common.CurrentUser;
+import com.nullworking.service.SyncService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Operation(summary = "增量同步", description = "返回游标之后变更的本人日志(logs)、已删除日志ID(deletedLogIds)、创建或参与的任务(tasks)与新游标(cursor)；hasMore为true时用新游标继续拉取，fullResync为true时客户端应先清空本地数据")
+    @GetMapping("/changes")
+    public ApiResponse<Map<String, Object>> getChanges(
+            @Parameter(description = "上次返回的cursor，首次同步不传") @RequestParam(value = "cursor", required = false) String cursor,
+            @CurrentUser Integer userId) {
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权，请登录");
+        }
+        return syncService.getChanges(userId, cursor);
+    }
+}
@@ -1,8 +1,10 @@
 package com.nullworking.controller;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +22,7 @@ import com.nullworking.service.LogService;
 import com.nullworking.service.TaskService;
 import com.nullworking.util.JwtUtil;
 import com.nullworking.model.dto.TaskPublishRequest;
+import com.nullworking.model.dto.TaskSearchCriteria;
 import com.nullworking.model.dto.TaskUpdateRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -75,6 +78,36 @@ public class TaskController {
         return taskService.listUserTasks(userId, taskStatus, participantType);
     }
 
+    @Operation(summary = "分页查询任务列表", description = "按状态、优先级、截止时间范围与参与角色过滤，按截止时间/优先级/创建时间排序，游标分页；未指定状态时不返回已关闭任务。返回tasks、nextCursor、hasMore")
+    @GetMapping("/page")
+    public ApiResponse<Map<String, Object>> queryTasks(
+            HttpServletRequest request,
+            @Parameter(description = "参与者类型 (creator:创建者, executor:执行者)，为空表示两者") @RequestParam(value = "role", required = false) String role,
+            @Parameter(description = "任务状态 (0:进行中, 1:已延期, 2:已完成, 3:已关闭)") @RequestParam(value = "taskStatus", required = false) Byte taskStatus,
+            @Parameter(description = "优先级 (0-3)") @RequestParam(value = "priority", required = false) Byte priority,
+            @Parameter(description = "截止时间下限，格式 yyyy-MM-ddTHH:mm:ss") @RequestParam(value = "deadlineFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineFrom,
+            @Parameter(description = "截止时间上限，格式 yyyy-MM-ddTHH:mm:ss") @RequestParam(value = "deadlineTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime deadlineTo,
+            @Parameter(description = "排序字段 (deadline, priority, creationTime)，默认deadline") @RequestParam(value = "sortBy", required = false, defaultValue = "deadline") String sortBy,
+            @Parameter(description = "排序方向 (asc, desc)，默认asc") @RequestParam(value = "order", required = false, defaultValue = "asc") String order,
+            @Parameter(description = "上一页返回的nextCursor，为空表示第一页") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "每页条数，默认20，最大100") @RequestParam(value = "size", required = false) Integer size) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(request, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权或Token无效");
+        }
+
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setUserId(userId);
+        criteria.setRole(role);
+        criteria.setTaskStatus(taskStatus);
+        criteria.setPriority(priority);
+        criteria.setDeadlineFrom(deadlineFrom);
+        criteria.setDeadlineTo(deadlineTo);
+        criteria.setSortBy(sortBy);
+        criteria.setAscending(!"desc".equalsIgnoreCase(order));
+        return taskService.queryTasks(criteria, cursor, size);
+    }
+
     @Operation(summary = "任务详情", description = "获取指定任务的所有日志，按进度排序，包含已完成和待完成的日志")
     @GetMapping("/{taskId}")
     public ApiResponse<Map<String, Object>> taskDetails(@PathVariable("taskId") Integer taskId, HttpServletRequest httpRequest) {
@@ -85,6 +118,30 @@ public class TaskController {
         return logService.taskDetails(taskId, userId);
     }
 
+    @Operation(summary = "任务头信息", description = "获取任务基本信息、执行者与当前进度，不含日志；日志通过时间线接口分页获取")
+    @GetMapping("/{taskId}/header")
+    public ApiResponse<Map<String, Object>> taskHeader(@Parameter(description = "任务ID") @PathVariable("taskId") Integer taskId, HttpServletRequest httpRequest) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(httpRequest, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权: 无效的token或用户ID");
+        }
+        return logService.taskHeader(taskId, userId);
+    }
+
+    @Operation(summary = "任务时间线", description = "按进度升序分页返回任务日志，已被后续进展取代的待完成日志不返回；第一页包含各执行者的接收任务记录。返回logs、nextCursor、hasMore")
+    @GetMapping("/{taskId}/timeline")
+    public ApiResponse<Map<String, Object>> taskTimeline(
+            @Parameter(description = "任务ID") @PathVariable("taskId") Integer taskId,
+            @Parameter(description = "上一页返回的nextCursor，为空表示第一页") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "每页条数，默认20，最大100") @RequestParam(value = "size", required = false) Integer size,
+            HttpServletRequest httpRequest) {
+        Integer userId = JwtUtil.extractUserIdFromRequest(httpRequest, jwtUtil);
+        if (userId == null) {
+            return ApiResponse.error(401, "未授权: 无效的token或用户ID");
+        }
+        return logService.taskTimeline(taskId, userId, cursor, size);
+    }
+
     @Operation(summary = "发布任务", description = "创建新任务并分配多个执行者，优先级0-3，创建者从Token获取，返回code：200成功，400参数错误，404创建者不存在，500失败")
     @PostMapping("")
     public ApiResponse<Map<String, Object>> publishTask(
@@ -15,7 +15,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nullworking.common.ApiResponse;
-import com.nullworking.service.UserDetailsServiceImpl;
+import com.nullworking.common.JwtPrincipal;
+import com.nullworking.service.UserDetailsCache;
 import com.nullworking.util.JwtUtil;
 
 import jakarta.servlet.FilterChain;
@@ -27,37 +28,35 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private UserDetailsCache userDetailsCache;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
         try {
-            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                jwt = authorizationHeader.substring(7);
-                username = jwtUtil.extractUsername(jwt);
-            }
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // 每个请求只验签解析一次，签名无效或已过期时直接抛出异常
+                JwtPrincipal principal = jwtUtil.parseToken(authorizationHeader.substring(7));
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (principal.getUserName() != null) {
+                    // 确认用户仍处于在职状态（已离职用户会抛出 UsernameNotFoundException），命中缓存时不访问数据库
+                    UserDetails userDetails = this.userDetailsCache.get(principal.getUserName());
 
                     UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            principal, null, userDetails.getAuthorities());
                     usernamePasswordAuthenticationToken
                             .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                    request.setAttribute(JwtUtil.PRINCIPAL_ATTRIBUTE, principal);
                 }
             }
             chain.doFilter(request, response);
@@ -72,6 +71,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType("application/json;charset=UTF-8");
         ApiResponse<Void> apiResponse = ApiResponse.error(401, message);
-        response.getWriter().write(new ObjectMapper().writeValueAsString(apiResponse));
+        response.getWriter().write(OBJECT_MAPPER.writeValueAsString(apiResponse));
     }
 }
@@ -13,14 +13,22 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+
+import com.nullworking.util.GeoHash;
 
 @Entity
 @Table(name = "Log")
 public class Log {
 
+    // 表生成器按 50 个一段预分配ID，插入不依赖自增回填，批量写入时可合并为 JDBC 批处理
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "log_id_generator")
+    @TableGenerator(name = "log_id_generator", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "log", allocationSize = 50)
     @Column(name = "Log_ID")
     private Integer logId;
 
@@ -66,6 +74,10 @@ public class Log {
     @Column(name = "Longitude")
     private Double longitude;
 
+    // 由经纬度在写入前生成，用于按区域查询日志
+    @Column(name = "Geohash", length = 12)
+    private String geohash;
+
     // Getters and Setters
     public Integer getLogId() {
         return logId;
@@ -178,4 +190,14 @@ public class Log {
     public void setLongitude(Double longitude) {
         this.longitude = longitude;
     }
+
+    public String getGeohash() {
+        return geohash;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        this.geohash = GeoHash.encode(latitude, longitude, GeoHash.PRECISION);
+    }
 }
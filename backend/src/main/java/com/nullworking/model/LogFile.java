@@ -15,6 +15,10 @@ public class LogFile {
     @Column(name = "Log_ID", nullable = true)
     private Integer logId;
 
+    // 上传者，关联到日志时校验归属；早期上传的文件为空
+    @Column(name = "Uploader_ID")
+    private Integer uploaderId;
+
     @Column(name = "Original_Name", nullable = false)
     private String originalName;
 
@@ -47,6 +51,14 @@ public class LogFile {
         this.logId = logId;
     }
 
+    public Integer getUploaderId() {
+        return uploaderId;
+    }
+
+    public void setUploaderId(Integer uploaderId) {
+        this.uploaderId = uploaderId;
+    }
+
     public String getOriginalName() {
         return originalName;
     }
@@ -0,0 +1,50 @@
+package com.nullworking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 推送发件箱：与业务数据在同一事务中写入，由 PushOutboxService 在事务提交后异步投递
+ */
+@Data
+@Entity
+@Table(name = "push_outbox")
+public class PushOutbox {
+
+    /** 待投递 */
+    public static final int STATUS_PENDING = 0;
+    /** 重试次数用尽，投递失败 */
+    public static final int STATUS_FAILED = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "title", nullable = false, length = 100)
+    private String title;
+
+    @Column(name = "content", nullable = false, length = 500)
+    private String content;
+
+    /** 接收设备的推送 token，以换行分隔 */
+    @Column(name = "tokens", nullable = false, columnDefinition = "TEXT")
+    private String tokens;
+
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private LocalDateTime creationTime;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,35 @@
+package com.nullworking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 删除墓碑：物理删除的数据在此留下记录，供客户端增量同步时移除本地副本，超过保留期后清理
+ */
+@Data
+@Entity
+@Table(name = "sync_tombstone")
+public class SyncTombstone {
+
+    public static final String ENTITY_LOG = "log";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    /** 被删除数据的所属用户 */
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "deleted_time", nullable = false)
+    private LocalDateTime deletedTime;
+}
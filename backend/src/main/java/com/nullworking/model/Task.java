@@ -53,6 +53,22 @@ public class Task {
     @Column(name = "Is_Deadline_Notified", nullable = false, columnDefinition = "boolean default false")
     private Boolean isDeadlineNotified = false;
 
+    // 已发送的最近一次截止提醒距截止时间的分钟数，为空表示尚未提醒；截止时间变更时清空
+    @Column(name = "Reminded_Offset_Minutes")
+    private Integer remindedOffsetMinutes;
+
+    // 已完成日志中的最大进度，由 TaskRepository 的原子 UPDATE 维护，实体保存时不写入
+    @Column(name = "Task_Progress", insertable = false, updatable = false)
+    private Integer taskProgress;
+
+    // 最近一次日志新增、修改或删除的时间，维护方式同上
+    @Column(name = "Last_Activity_Time", insertable = false, updatable = false)
+    private LocalDateTime lastActivityTime;
+
+    // 行的最后修改时间，由数据库 ON UPDATE CURRENT_TIMESTAMP 维护（含原生 UPDATE），用于增量同步
+    @Column(name = "Update_Time", insertable = false, updatable = false)
+    private LocalDateTime updateTime;
+
     // Getters and Setters
     public Integer getTaskId() {
         return taskId;
@@ -142,4 +158,32 @@ public class Task {
     public void setIsDeadlineNotified(Boolean isDeadlineNotified) {
         this.isDeadlineNotified = isDeadlineNotified;
     }
+
+    public Integer getRemindedOffsetMinutes() {
+        return remindedOffsetMinutes;
+    }
+
+    public void setRemindedOffsetMinutes(Integer remindedOffsetMinutes) {
+        this.remindedOffsetMinutes = remindedOffsetMinutes;
+    }
+
+    public Integer getTaskProgress() {
+        return taskProgress;
+    }
+
+    public void setTaskProgress(Integer taskProgress) {
+        this.taskProgress = taskProgress;
+    }
+
+    public LocalDateTime getLastActivityTime() {
+        return lastActivityTime;
+    }
+
+    public void setLastActivityTime(LocalDateTime lastActivityTime) {
+        this.lastActivityTime = lastActivityTime;
+    }
+
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
 }
@@ -0,0 +1,35 @@
+package com.nullworking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话中已上传成功的分片，合并时按分片号提交 ETag
+ */
+@Data
+@Entity
+@Table(name = "upload_part")
+public class UploadPart {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "part_number", nullable = false)
+    private Integer partNumber;
+
+    @Column(name = "etag", nullable = false, length = 64)
+    private String etag;
+
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+
+    @Column(name = "upload_time", nullable = false)
+    private LocalDateTime uploadTime;
+}
@@ -0,0 +1,63 @@
+package com.nullworking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话：对应一次 COS 分片上传，记录分片大小与状态，客户端断线后据此续传
+ */
+@Data
+@Entity
+@Table(name = "upload_session")
+public class UploadSession {
+
+    /** 上传中 */
+    public static final int STATUS_UPLOADING = 0;
+    /** 已合并为日志附件 */
+    public static final int STATUS_COMPLETED = 1;
+    /** 已取消或过期清理 */
+    public static final int STATUS_ABORTED = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "uploader_id", nullable = false)
+    private Integer uploaderId;
+
+    @Column(name = "original_name", nullable = false)
+    private String originalName;
+
+    @Column(name = "file_type", nullable = false)
+    private String fileType;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+
+    @Column(name = "total_parts", nullable = false)
+    private Integer totalParts;
+
+    /** COS 对象键 */
+    @Column(name = "storage_path", nullable = false)
+    private String storagePath;
+
+    /** COS 返回的分片上传ID */
+    @Column(name = "cos_upload_id", nullable = false)
+    private String cosUploadId;
+
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    /** 完成后生成的日志附件ID */
+    @Column(name = "file_id")
+    private Integer fileId;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private LocalDateTime creationTime;
+}
@@ -0,0 +1,15 @@
+package com.nullworking.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "分片上传初始化请求体")
+public class ChunkedUploadInitRequest {
+    @Schema(description = "原始文件名", example = "现场视频.mp4")
+    private String fileName;
+    @Schema(description = "文件类型", example = "video/mp4")
+    private String fileType;
+    @Schema(description = "文件大小（字节）", example = "52428800")
+    private Long fileSize;
+}
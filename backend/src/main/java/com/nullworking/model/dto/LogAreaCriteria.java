@@ -0,0 +1,31 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 按矩形（或圆形）区域查询日志的条件，由服务层根据请求参数组装
+ */
+@Data
+public class LogAreaCriteria {
+    /** 当前用户ID，未指定任务时查询其创建的任务下的日志与本人日志 */
+    private Integer userId;
+    /** 只查询该任务下的日志，调用方需先校验查看权限；查询区域外时必填 */
+    private Integer taskId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    /** 覆盖区域的 Geohash 前缀，用于索引范围扫描，仅查询区域内时使用 */
+    private List<String> geohashPrefixes;
+    private double minLat;
+    private double minLng;
+    private double maxLat;
+    private double maxLng;
+    /** 圆形区域的中心点与半径（米），为空时按矩形区域查询 */
+    private Double centerLat;
+    private Double centerLng;
+    private double radiusMeters;
+    /** 为 true 时查询区域外的日志 */
+    private boolean outside;
+}
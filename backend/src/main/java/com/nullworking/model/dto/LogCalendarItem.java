@@ -0,0 +1,24 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 日历视图中的一条日志
+ */
+@Data
+@AllArgsConstructor
+public class LogCalendarItem {
+    private Integer logId;
+    private Integer taskId;
+    private String taskTitle;
+    private String logTitle;
+    private String logContent;
+    private LocalDate logDate;
+    private Integer logStatus;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,27 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 按位置查询返回的一条日志（不含日志正文）
+ */
+@Data
+@AllArgsConstructor
+public class LogGeoItem {
+    private Integer logId;
+    private Integer taskId;
+    private String taskTitle;
+    private Integer userId;
+    private String userName;
+    private String logTitle;
+    private LocalDate logDate;
+    private Integer logStatus;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,26 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 增量同步中的一条变更日志，字段与日历列表一致，另带修改时间用于推进游标
+ */
+@Data
+@AllArgsConstructor
+public class LogSyncItem {
+    private Integer logId;
+    private Integer taskId;
+    private String taskTitle;
+    private String logTitle;
+    private String logContent;
+    private LocalDate logDate;
+    private Integer logStatus;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime updateTime;
+}
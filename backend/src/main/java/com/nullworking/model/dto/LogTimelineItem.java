@@ -0,0 +1,24 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 任务时间线中的一条日志，撰写人信息随查询一并取回
+ */
+@Data
+@AllArgsConstructor
+public class LogTimelineItem {
+    private Integer logId;
+    private String logTitle;
+    private String logContent;
+    private Integer taskProgress;
+    private Integer logStatus;
+    private Integer userId;
+    private String userName;
+    private LocalDate logDate;
+    private LocalTime endTime;
+}
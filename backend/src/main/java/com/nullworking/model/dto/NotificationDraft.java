@@ -0,0 +1,16 @@
+package com.nullworking.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 待批量写入的一条通知
+ */
+@Data
+@AllArgsConstructor
+public class NotificationDraft {
+    private Integer receiverId;
+    private String content;
+    private String relatedType;
+    private Integer relatedId;
+}
@@ -0,0 +1,27 @@
+package com.nullworking.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * 任务列表查询条件（数据库侧过滤、排序与游标分页）
+ */
+@Data
+public class TaskSearchCriteria {
+    /** 当前用户ID */
+    private Integer userId;
+    /** creator=我创建的，executor=我参与的，为空表示两者 */
+    private String role;
+    /** 任务状态，为空时返回除已关闭外的全部状态 */
+    private Byte taskStatus;
+    private Byte priority;
+    private LocalDateTime deadlineFrom;
+    private LocalDateTime deadlineTo;
+    /** 排序字段：deadline、priority、creationTime */
+    private String sortBy = "deadline";
+    private boolean ascending = true;
+    /** 上一页最后一条记录的排序字段值与任务ID，均为空时取第一页 */
+    private Object cursorValue;
+    private Integer cursorId;
+}
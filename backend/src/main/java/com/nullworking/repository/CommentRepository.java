@@ -3,6 +3,7 @@ package com.nullworking.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,4 +16,10 @@ public interface CommentRepository extends JpaRepository<Comment, Integer> {
     // Order by latest activity: use updated_at if present, otherwise created_at
     @Query(value = "SELECT * FROM comment WHERE log_id = :logId AND is_deleted = 0 ORDER BY COALESCE(updated_at, created_at) DESC", nativeQuery = true)
     List<Comment> findByLogIdAndIsDeletedFalseOrderByLatest(@Param("logId") Integer logId);
+
+    /**
+     * 全量重建检索索引时按评论ID分批读取未删除评论，连同所属日志的任务ID与作者ID
+     */
+    @Query("SELECT c.id, c.logId, l.task.taskId, l.user.userId, c.content FROM Comment c, Log l WHERE l.logId = c.logId AND c.isDeleted = 0 AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
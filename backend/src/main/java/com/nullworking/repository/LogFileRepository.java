@@ -2,11 +2,49 @@ package com.nullworking.repository;
 
 import com.nullworking.model.LogFile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LogFileRepository extends JpaRepository<LogFile, Integer> {
     List<LogFile> findByLogId(Integer logId);
+
+    /**
+     * 统计可关联到日志的文件数：已关联到该日志的文件，或由该用户上传且尚未关联任何日志的文件
+     */
+    @Query("SELECT COUNT(f) FROM LogFile f WHERE f.fileId IN :fileIds " +
+           "AND (f.logId = :logId OR (f.logId IS NULL AND f.uploaderId = :userId))")
+    long countAttachable(@Param("fileIds") Collection<Integer> fileIds, @Param("logId") Integer logId, @Param("userId") Integer userId);
+
+    @Query("SELECT COUNT(f) FROM LogFile f WHERE f.fileId IN :fileIds AND f.logId IS NULL AND f.uploaderId = :userId")
+    long countUnattachedOwned(@Param("fileIds") Collection<Integer> fileIds, @Param("userId") Integer userId);
+
+    /**
+     * 给定文件中由该用户上传且尚未关联任何日志的文件ID，批量新建日志时一次校验全部附件
+     */
+    @Query("SELECT f.fileId FROM LogFile f WHERE f.fileId IN :fileIds AND f.logId IS NULL AND f.uploaderId = :userId")
+    List<Integer> findUnattachedOwnedIds(@Param("fileIds") Collection<Integer> fileIds, @Param("userId") Integer userId);
+
+    /**
+     * 解除日志与不在新文件集合中的文件的关联
+     */
+    @Modifying
+    @Query("UPDATE LogFile f SET f.logId = NULL WHERE f.logId = :logId AND f.fileId NOT IN :fileIds")
+    int detachExcept(@Param("logId") Integer logId, @Param("fileIds") Collection<Integer> fileIds);
+
+    @Modifying
+    @Query("UPDATE LogFile f SET f.logId = NULL WHERE f.logId = :logId")
+    int detachAll(@Param("logId") Integer logId);
+
+    /**
+     * 将该用户上传且尚未关联的文件关联到日志
+     */
+    @Modifying
+    @Query("UPDATE LogFile f SET f.logId = :logId WHERE f.fileId IN :fileIds AND f.logId IS NULL AND f.uploaderId = :userId")
+    int attach(@Param("logId") Integer logId, @Param("fileIds") Collection<Integer> fileIds, @Param("userId") Integer userId);
 }
@@ -1,17 +1,23 @@
 package com.nullworking.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nullworking.model.Log;
+import com.nullworking.model.dto.LogCalendarItem;
+import com.nullworking.model.dto.LogSyncItem;
+import com.nullworking.model.dto.LogTimelineItem;
 
 @Repository
-public interface LogRepository extends JpaRepository<Log, Integer> {
+public interface LogRepository extends JpaRepository<Log, Integer>, LogRepositoryCustom {
     List<Log> findByTaskTaskIdAndLogStatus(Integer taskId, Integer logStatus);
 
     void deleteByTaskTaskIdAndLogStatus(Integer taskId, Integer logStatus);
@@ -27,8 +33,51 @@ public interface LogRepository extends JpaRepository<Log, Integer> {
     List<Log> findByUserUserId(Integer userId);
     
     @Query("SELECT l FROM Log l LEFT JOIN FETCH l.user LEFT JOIN FETCH l.task WHERE l.user.userId IN :userIds AND l.logDate BETWEEN :startDate AND :endDate")
-    List<Log> findByUserUserIdInAndLogDateBetween(List<Integer> userIds, LocalDate startDate, LocalDate endDate);
+    List<Log> findByUserUserIdInAndLogDateBetween(@Param("userIds") List<Integer> userIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     @Query("SELECT l FROM Log l LEFT JOIN FETCH l.user LEFT JOIN FETCH l.task WHERE l.task.taskId = :taskId")
-    List<Log> findByTaskTaskId(Integer taskId);
+    List<Log> findByTaskTaskId(@Param("taskId") Integer taskId);
+
+    /**
+     * 日历视图列表：只取展示所需的列并连接任务标题，走 (user_id, log_date) 索引
+     * 客户端按正文筛选列表，正文需完整返回
+     */
+    @Query("SELECT new com.nullworking.model.dto.LogCalendarItem(l.logId, t.taskId, t.taskTitle, l.logTitle, l.logContent, l.logDate, l.logStatus, l.startTime, l.endTime) " +
+           "FROM Log l JOIN l.task t WHERE l.user.userId = :userId AND l.logDate BETWEEN :startDate AND :endDate ORDER BY l.logDate, l.startTime, l.logId")
+    List<LogCalendarItem> findCalendarItems(@Param("userId") Integer userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 任务时间线分页：按 (进度, 日志ID) 游标升序取下一页，连接撰写人，
+     * 进度不高于已完成最大进度的待完成日志已被后续进展取代，在查询中直接排除
+     */
+    @Query("SELECT new com.nullworking.model.dto.LogTimelineItem(l.logId, l.logTitle, l.logContent, l.taskProgress, l.logStatus, u.userId, u.realName, l.logDate, l.endTime) " +
+           "FROM Log l JOIN l.user u WHERE l.task.taskId = :taskId " +
+           "AND (l.logStatus = 1 OR l.taskProgress > :maxCompletedProgress) " +
+           "AND (l.taskProgress > :afterProgress OR (l.taskProgress = :afterProgress AND l.logId > :afterLogId)) " +
+           "ORDER BY l.taskProgress, l.logId")
+    List<LogTimelineItem> findTimelinePage(@Param("taskId") Integer taskId, @Param("maxCompletedProgress") Integer maxCompletedProgress, @Param("afterProgress") Integer afterProgress, @Param("afterLogId") Integer afterLogId, Pageable pageable);
+
+    /**
+     * 增量同步：按 (修改时间, 日志ID) 游标读取用户修改过的日志，只取早于上界的记录
+     */
+    @Query("SELECT new com.nullworking.model.dto.LogSyncItem(l.logId, t.taskId, t.taskTitle, l.logTitle, l.logContent, l.logDate, l.logStatus, l.startTime, l.endTime, l.updateTime) " +
+           "FROM Log l JOIN l.task t WHERE l.user.userId = :userId AND l.updateTime < :upperBound " +
+           "AND (l.updateTime > :afterTime OR (l.updateTime = :afterTime AND l.logId > :afterId)) ORDER BY l.updateTime, l.logId")
+    List<LogSyncItem> findSyncChanges(@Param("userId") Integer userId, @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Integer afterId, @Param("upperBound") LocalDateTime upperBound, Pageable pageable);
+
+    /**
+     * 按天、按状态汇总用户日志条数与记录分钟数（结束时间早于开始时间的按 0 计）
+     * 返回行：log_date, log_status, 条数, 分钟数
+     */
+    @Query(value = "SELECT log_date, log_status, COUNT(*), " +
+                   "COALESCE(SUM(GREATEST(TIME_TO_SEC(end_time) - TIME_TO_SEC(start_time), 0)), 0) DIV 60 " +
+                   "FROM log WHERE user_id = :userId AND log_date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY log_date, log_status ORDER BY log_date", nativeQuery = true)
+    List<Object[]> summarizeByDay(@Param("userId") Integer userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 全量重建检索索引时按日志ID分批读取，只取被索引的列
+     */
+    @Query("SELECT l.logId, l.task.taskId, l.user.userId, l.logStatus, l.logTitle, l.logContent FROM Log l WHERE l.logId > :afterId ORDER BY l.logId")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.nullworking.repository;
+
+import java.util.List;
+
+import com.nullworking.model.dto.LogAreaCriteria;
+import com.nullworking.model.dto.LogGeoItem;
+
+public interface LogRepositoryCustom {
+
+    /**
+     * 查询位于区域内（或外）的日志，区域判断在查询中完成，条数限制只作用于命中的日志
+     * 区域内按 Geohash 前缀走 (geohash, log_date) 索引范围扫描，区域外按任务索引读取后排除区域内的
+     * @param criteria 查询条件
+     * @param limit 最多返回条数
+     */
+    List<LogGeoItem> findInArea(LogAreaCriteria criteria, int limit);
+}
@@ -0,0 +1,96 @@
+package com.nullworking.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nullworking.model.Log;
+import com.nullworking.model.Task;
+import com.nullworking.model.User;
+import com.nullworking.model.dto.LogAreaCriteria;
+import com.nullworking.model.dto.LogGeoItem;
+import com.nullworking.util.GeoHash;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class LogRepositoryImpl implements LogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LogGeoItem> findInArea(LogAreaCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LogGeoItem> query = cb.createQuery(LogGeoItem.class);
+        Root<Log> log = query.from(Log.class);
+        Join<Log, Task> task = log.join("task");
+        Join<Log, User> user = log.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        Expression<Double> latitude = log.get("latitude");
+        Expression<Double> longitude = log.get("longitude");
+        List<Predicate> area = new ArrayList<>();
+        area.add(cb.between(latitude, criteria.getMinLat(), criteria.getMaxLat()));
+        area.add(cb.between(longitude, criteria.getMinLng(), criteria.getMaxLng()));
+        if (criteria.getCenterLat() != null) {
+            area.add(withinRadius(cb, latitude, longitude, criteria));
+        }
+        Predicate inside = cb.and(area.toArray(new Predicate[0]));
+
+        if (criteria.isOutside()) {
+            predicates.add(cb.isNotNull(latitude));
+            predicates.add(cb.isNotNull(longitude));
+            predicates.add(cb.not(inside));
+        } else {
+            // 每个前缀对应一段 geohash 索引范围，多个前缀以 OR 合并
+            List<Predicate> cells = new ArrayList<>(criteria.getGeohashPrefixes().size());
+            for (String prefix : criteria.getGeohashPrefixes()) {
+                cells.add(cb.like(log.get("geohash"), prefix + "%"));
+            }
+            predicates.add(cb.or(cells.toArray(new Predicate[0])));
+            predicates.add(inside);
+        }
+        predicates.add(cb.between(log.get("logDate"), criteria.getStartDate(), criteria.getEndDate()));
+
+        if (criteria.getTaskId() != null) {
+            predicates.add(cb.equal(task.get("taskId"), criteria.getTaskId()));
+        } else {
+            predicates.add(cb.or(
+                    cb.equal(task.get("creator").get("userId"), criteria.getUserId()),
+                    cb.equal(user.get("userId"), criteria.getUserId())));
+        }
+
+        query.select(cb.construct(LogGeoItem.class,
+                        log.get("logId"), task.get("taskId"), task.get("taskTitle"), user.get("userId"), user.get("realName"),
+                        log.get("logTitle"), log.get("logDate"), log.get("logStatus"), log.get("startTime"), log.get("endTime"),
+                        log.get("latitude"), log.get("longitude")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(log.get("logDate")), cb.asc(log.get("logId")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * 与中心点的球面距离不超过半径：haversine 公式中 sin²(Δφ/2) + cosφ1·cosφ2·sin²(Δλ/2) ≤ sin²(d/2R)
+     */
+    private Predicate withinRadius(CriteriaBuilder cb, Expression<Double> latitude, Expression<Double> longitude, LogAreaCriteria criteria) {
+        double toRadians = Math.PI / 180;
+        Expression<Double> halfDLat = sin(cb, cb.prod(cb.diff(latitude, criteria.getCenterLat()), toRadians / 2));
+        Expression<Double> halfDLng = sin(cb, cb.prod(cb.diff(longitude, criteria.getCenterLng()), toRadians / 2));
+        Expression<Double> cosLat = cb.function("cos", Double.class, cb.prod(latitude, toRadians));
+        Expression<Double> haversine = cb.sum(cb.prod(halfDLat, halfDLat),
+                cb.prod(cb.prod(cosLat, Math.cos(criteria.getCenterLat() * toRadians)), cb.prod(halfDLng, halfDLng)));
+        return cb.le(haversine, GeoHash.haversineOf(criteria.getRadiusMeters()));
+    }
+
+    private Expression<Double> sin(CriteriaBuilder cb, Expression<? extends Number> radians) {
+        return cb.function("sin", Double.class, radians);
+    }
+}
@@ -1,13 +1,70 @@
 package com.nullworking.repository;
 
 import com.nullworking.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Integer> {
     List<Notification> findByReceiverIdOrderByCreationTimeDesc(Integer receiverId);
     boolean existsByReceiverIdAndIsReadFalse(Integer receiverId);
+    long countByReceiverIdAndIsReadFalse(Integer receiverId);
+
+    @Query("SELECT n.receiverId, COUNT(n) FROM Notification n WHERE n.isRead = false GROUP BY n.receiverId")
+    List<Object[]> countUnreadGroupByReceiver();
+
+    /**
+     * 收件箱第一页，按 (creationTime, id) 倒序，走 (receiver_id, creation_time, id) 索引
+     */
+    @Query("SELECT n FROM Notification n WHERE n.receiverId = :receiverId AND (:unreadOnly = false OR n.isRead = false) " +
+           "ORDER BY n.creationTime DESC, n.id DESC")
+    List<Notification> findInboxFirstPage(@Param("receiverId") Integer receiverId,
+                                          @Param("unreadOnly") boolean unreadOnly,
+                                          Pageable pageable);
+
+    /**
+     * 收件箱后续页：只取游标 (creationTime, id) 之前的记录
+     */
+    @Query("SELECT n FROM Notification n WHERE n.receiverId = :receiverId AND (:unreadOnly = false OR n.isRead = false) " +
+           "AND (n.creationTime < :cursorTime OR (n.creationTime = :cursorTime AND n.id < :cursorId)) " +
+           "ORDER BY n.creationTime DESC, n.id DESC")
+    List<Notification> findInboxPageBefore(@Param("receiverId") Integer receiverId,
+                                           @Param("unreadOnly") boolean unreadOnly,
+                                           @Param("cursorTime") LocalDateTime cursorTime,
+                                           @Param("cursorId") Integer cursorId,
+                                           Pageable pageable);
+
+    /**
+     * 将单条未读通知标记为已读，返回 0 表示已是已读（或并发请求已先标记）
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.receiverId = :receiverId AND n.isRead = false")
+    int markOneAsRead(@Param("id") Integer id, @Param("receiverId") Integer receiverId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiverId = :receiverId AND n.isRead = false")
+    int markAllAsRead(@Param("receiverId") Integer receiverId);
+
+    /**
+     * 将游标 (creationTime, id) 及之前的未读通知标记为已读
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiverId = :receiverId AND n.isRead = false " +
+           "AND (n.creationTime < :cursorTime OR (n.creationTime = :cursorTime AND n.id <= :cursorId))")
+    int markAsReadUpTo(@Param("receiverId") Integer receiverId,
+                       @Param("cursorTime") LocalDateTime cursorTime,
+                       @Param("cursorId") Integer cursorId);
+
+    /**
+     * 超过保留期的已读通知ID，走 (is_read, creation_time) 索引
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.creationTime < :cutoff ORDER BY n.creationTime")
+    List<Integer> findReadIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package com.nullworking.repository;
+
+import com.nullworking.model.PushOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PushOutboxRepository extends JpaRepository<PushOutbox, Long> {
+
+    @Query("SELECT o FROM PushOutbox o WHERE o.status = 0 AND o.nextAttemptTime <= :now ORDER BY o.id")
+    List<PushOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(Integer status);
+}
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nullworking.model.RolePermissionRelation;
@@ -13,4 +15,10 @@ public interface RolePermissionRelationRepository extends JpaRepository<RolePerm
     List<RolePermissionRelation> findByRole_RoleId(Integer roleId);
     List<RolePermissionRelation> findByPermission_PermissionId(Integer permissionId);
     Optional<RolePermissionRelation> findByRole_RoleIdAndPermission_PermissionId(Integer roleId, Integer permissionId);
+
+    /**
+     * 查询用户所属角色拥有的全部权限名称
+     */
+    @Query("SELECT rp.permission.permissionName FROM RolePermissionRelation rp, User u WHERE u.userId = :userId AND rp.role = u.role")
+    List<String> findPermissionNamesByUserId(@Param("userId") Integer userId);
 }
@@ -0,0 +1,36 @@
+package com.nullworking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.nullworking.model.SyncTombstone;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * 按 (删除时间, ID) 游标读取用户的墓碑，只取早于上界的记录
+     */
+    @Query("SELECT s FROM SyncTombstone s WHERE s.userId = :userId AND s.deletedTime < :upperBound " +
+           "AND (s.deletedTime > :afterTime OR (s.deletedTime = :afterTime AND s.id > :afterId)) ORDER BY s.deletedTime, s.id")
+    List<SyncTombstone> findChanges(@Param("userId") Integer userId, @Param("afterTime") LocalDateTime afterTime,
+                                    @Param("afterId") Long afterId, @Param("upperBound") LocalDateTime upperBound, Pageable pageable);
+
+    /**
+     * 批量删除任务的待完成日志前，为这些日志的作者写入墓碑
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sync_tombstone (entity_type, entity_id, user_id, deleted_time) " +
+                   "SELECT 'log', log_id, user_id, :now FROM log WHERE task_id = :taskId AND log_status = 0", nativeQuery = true)
+    int insertPendingLogTombstones(@Param("taskId") Integer taskId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.id FROM SyncTombstone s WHERE s.deletedTime < :cutoff ORDER BY s.id")
+    List<Long> findIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nullworking.model.TaskExecutorRelation;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,9 +30,27 @@ public interface TaskExecutorRelationRepository extends JpaRepository<TaskExecut
 	@Query("SELECT r.executor.userId FROM TaskExecutorRelation r WHERE r.task.taskId = :taskId")
 	List<Integer> findAllExecutorIdsByTaskId(@Param("taskId") Integer taskId);
 
+	/**
+	 * 批量查询多个任务的执行者：[taskId, executorId]
+	 */
+	@Query("SELECT r.task.taskId, r.executor.userId FROM TaskExecutorRelation r WHERE r.task.taskId IN :taskIds")
+	List<Object[]> findExecutorIdsByTaskIds(@Param("taskIds") Collection<Integer> taskIds);
+
+	/**
+	 * 批量查询多个任务的执行者姓名：[taskId, realName]
+	 */
+	@Query("SELECT r.task.taskId, e.realName FROM TaskExecutorRelation r JOIN r.executor e WHERE r.task.taskId IN :taskIds ORDER BY r.relationId")
+	List<Object[]> findExecutorNamesByTaskIds(@Param("taskIds") Collection<Integer> taskIds);
+
 	boolean existsByTask_TaskIdAndExecutor_UserId(Integer taskId, Integer userId);
 
 	boolean existsByExecutor_UserId(Integer userId);
 
     List<TaskExecutorRelation> findByTask_TaskId(Integer taskId);
+
+	/**
+	 * 查询任务执行者的ID与姓名，按分配顺序
+	 */
+	@Query("SELECT e.userId, e.realName FROM TaskExecutorRelation r JOIN r.executor e WHERE r.task.taskId = :taskId ORDER BY r.relationId")
+	List<Object[]> findExecutorIdAndNamesByTaskId(@Param("taskId") Integer taskId);
 }
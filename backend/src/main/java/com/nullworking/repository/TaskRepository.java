@@ -1,18 +1,29 @@
 package com.nullworking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nullworking.model.Task;
+import java.util.Collection;
 import java.util.List;
 import java.time.LocalDateTime;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskRepositoryCustom {
 	List<Task> findByCreator_UserIdAndTaskStatusNot(Integer userId, Byte taskStatus);
 
 	List<Task> findByCreator_UserId(Integer userId);
 
+	@Query("SELECT t FROM Task t JOIN FETCH t.creator WHERE t.creator.userId = :userId AND t.taskStatus <> :taskStatus")
+	List<Task> findWithCreatorByCreatorIdAndTaskStatusNot(@Param("userId") Integer userId, @Param("taskStatus") Byte taskStatus);
+
+	@Query("SELECT t FROM Task t JOIN FETCH t.creator WHERE t.taskId IN :taskIds")
+	List<Task> findWithCreatorByIds(@Param("taskIds") Collection<Integer> taskIds);
+
 	List<Task> findByDeadlineBetweenAndIsDeadlineNotifiedFalseAndTaskStatusNot(LocalDateTime start, LocalDateTime end, Byte taskStatus);
 
 	/**
@@ -22,4 +33,93 @@ public interface TaskRepository extends JpaRepository<Task, Integer> {
      * @return 符合条件的任务列表
      */
     List<Task> findByDeadlineBeforeAndTaskStatusNotIn(LocalDateTime deadline, List<Byte> excludeStatuses);
+
+    List<Task> findByTaskStatusAndDeadlineBefore(Byte taskStatus, LocalDateTime deadline);
+
+    /**
+     * 锁定已过截止时间但仍为进行中的任务（SELECT ... FOR UPDATE），与随后的批量 UPDATE 处于同一事务，返回的ID即受影响的任务
+     */
+    @Query(value = "SELECT task_id FROM task WHERE task_status = 0 AND deadline <= :now FOR UPDATE", nativeQuery = true)
+    List<Integer> lockOverdueTaskIds(@Param("now") LocalDateTime now);
+
+    /**
+     * 同上，仅限指定任务
+     */
+    @Query(value = "SELECT task_id FROM task WHERE task_id IN (:taskIds) AND task_status = 0 AND deadline <= :now FOR UPDATE", nativeQuery = true)
+    List<Integer> lockOverdueTaskIdsIn(@Param("taskIds") Collection<Integer> taskIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.taskStatus = :taskStatus WHERE t.taskId IN :taskIds")
+    int updateStatusByIds(@Param("taskIds") Collection<Integer> taskIds, @Param("taskStatus") Byte taskStatus);
+
+    /**
+     * 记录已发送的截止提醒：仅当任务仍为进行中、截止时间未变更且尚未发送过同一时间点或更临近的提醒时更新
+     * 只更新这两列，不会覆盖并发修改的任务状态、截止时间等字段；返回 1 表示由本次调用发送提醒
+     * 截止时间按毫秒区间比较，与调度时截断到毫秒的截止时间对应
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.remindedOffsetMinutes = :offset, t.isDeadlineNotified = true " +
+           "WHERE t.taskId = :taskId AND t.taskStatus = :taskStatus AND t.deadline >= :deadline AND t.deadline < :deadlineEnd " +
+           "AND (t.remindedOffsetMinutes IS NULL OR t.remindedOffsetMinutes > :offset)")
+    int markReminded(@Param("taskId") Integer taskId, @Param("taskStatus") Byte taskStatus, @Param("deadline") LocalDateTime deadline,
+                     @Param("deadlineEnd") LocalDateTime deadlineEnd, @Param("offset") Integer offset);
+
+    /**
+     * 批量查询任务标题与创建者ID：[taskId, taskTitle, creatorId]
+     */
+    @Query("SELECT t.taskId, t.taskTitle, t.creator.userId FROM Task t WHERE t.taskId IN :taskIds")
+    List<Object[]> findTitleAndCreatorByIds(@Param("taskIds") Collection<Integer> taskIds);
+
+    /**
+     * 新增已完成日志时只会提高进度，单条 UPDATE 取较大值，并发写入不会相互覆盖
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE task SET task_progress = GREATEST(task_progress, :progress), last_activity_time = :now WHERE task_id = :taskId", nativeQuery = true)
+    int raiseProgress(@Param("taskId") Integer taskId, @Param("progress") Integer progress, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE task SET last_activity_time = :now WHERE task_id = :taskId", nativeQuery = true)
+    int touchLastActivity(@Param("taskId") Integer taskId, @Param("now") LocalDateTime now);
+
+    /**
+     * 日志修改或删除后进度可能下降，按已完成日志重新计算
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE task t SET t.task_progress = (SELECT COALESCE(MAX(l.task_progress), 0) FROM log l WHERE l.task_id = t.task_id AND l.log_status = 1), " +
+                   "t.last_activity_time = :now WHERE t.task_id = :taskId", nativeQuery = true)
+    int recomputeProgress(@Param("taskId") Integer taskId, @Param("now") LocalDateTime now);
+
+    /**
+     * 按任务ID区间重建进度与最近活动时间，用于回填或校正
+     */
+    @Modifying
+    @Query(value = "UPDATE task t SET t.task_progress = (SELECT COALESCE(MAX(l.task_progress), 0) FROM log l WHERE l.task_id = t.task_id AND l.log_status = 1), " +
+                   "t.last_activity_time = (SELECT MAX(l.update_time) FROM log l WHERE l.task_id = t.task_id) " +
+                   "WHERE t.task_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int rebuildProgressInRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+
+    @Query("SELECT MAX(t.taskId) FROM Task t")
+    Integer findMaxTaskId();
+
+    @Query("SELECT t.taskProgress FROM Task t WHERE t.taskId = :taskId")
+    Integer findTaskProgressById(@Param("taskId") Integer taskId);
+
+    /**
+     * 增量同步：按 (修改时间, 任务ID) 游标读取用户创建或参与的、发生过修改的任务，只取早于上界的记录
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.creator WHERE (t.creator.userId = :userId " +
+           "OR EXISTS (SELECT r.relationId FROM TaskExecutorRelation r WHERE r.task = t AND r.executor.userId = :userId)) " +
+           "AND t.updateTime < :upperBound AND (t.updateTime > :afterTime OR (t.updateTime = :afterTime AND t.taskId > :afterId)) " +
+           "ORDER BY t.updateTime, t.taskId")
+    List<Task> findSyncChanges(@Param("userId") Integer userId, @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Integer afterId,
+                               @Param("upperBound") LocalDateTime upperBound, Pageable pageable);
+
+    @Query("SELECT t.taskId FROM Task t WHERE t.creator.userId = :userId")
+    List<Integer> findTaskIdsByCreatorId(@Param("userId") Integer userId);
+
+    /**
+     * 全量重建检索索引时按任务ID分批读取，只取被索引的列
+     */
+    @Query("SELECT t.taskId, t.creator.userId, t.taskTitle, t.taskContent FROM Task t WHERE t.taskId > :afterId ORDER BY t.taskId")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.nullworking.repository;
+
+import java.util.List;
+
+import com.nullworking.model.Task;
+import com.nullworking.model.dto.TaskSearchCriteria;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * 按条件查询任务，按排序字段与任务ID做键集分页，创建者一并取回
+     * @param criteria 查询条件
+     * @param limit 最多返回条数
+     */
+    List<Task> searchTasks(TaskSearchCriteria criteria, int limit);
+}
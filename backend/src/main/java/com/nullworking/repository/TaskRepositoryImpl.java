@@ -0,0 +1,91 @@
+package com.nullworking.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nullworking.model.Task;
+import com.nullworking.model.TaskExecutorRelation;
+import com.nullworking.model.dto.TaskSearchCriteria;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Task> searchTasks(TaskSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        task.fetch("creator");
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        // 角色：创建者直接比较外键，执行者用 EXISTS 子查询，走 (executor_id, task_id) 索引
+        Predicate isCreator = cb.equal(task.get("creator").get("userId"), criteria.getUserId());
+        Subquery<Integer> executorQuery = query.subquery(Integer.class);
+        Root<TaskExecutorRelation> relation = executorQuery.from(TaskExecutorRelation.class);
+        executorQuery.select(relation.get("relationId")).where(
+                cb.equal(relation.get("task"), task),
+                cb.equal(relation.get("executor").get("userId"), criteria.getUserId()));
+        Predicate isExecutor = cb.exists(executorQuery);
+        if ("creator".equals(criteria.getRole())) {
+            predicates.add(isCreator);
+        } else if ("executor".equals(criteria.getRole())) {
+            predicates.add(isExecutor);
+        } else {
+            predicates.add(cb.or(isCreator, isExecutor));
+        }
+
+        if (criteria.getTaskStatus() != null) {
+            predicates.add(cb.equal(task.get("taskStatus"), criteria.getTaskStatus()));
+        } else {
+            predicates.add(cb.notEqual(task.get("taskStatus"), (byte) 3));
+        }
+        if (criteria.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), criteria.getPriority()));
+        }
+        if (criteria.getDeadlineFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("deadline"), criteria.getDeadlineFrom()));
+        }
+        if (criteria.getDeadlineTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("deadline"), criteria.getDeadlineTo()));
+        }
+
+        // 键集分页：(排序字段, 任务ID) 严格位于游标之后
+        Path<Comparable> sortPath = task.get(criteria.getSortBy());
+        Path<Integer> idPath = task.get("taskId");
+        if (criteria.getCursorValue() != null && criteria.getCursorId() != null) {
+            Comparable cursorValue = (Comparable) criteria.getCursorValue();
+            Expression<Comparable> cursorLiteral = cb.literal(cursorValue);
+            if (criteria.isAscending()) {
+                predicates.add(cb.or(
+                        cb.greaterThan(sortPath, cursorLiteral),
+                        cb.and(cb.equal(sortPath, cursorValue), cb.greaterThan(idPath, criteria.getCursorId()))));
+            } else {
+                predicates.add(cb.or(
+                        cb.lessThan(sortPath, cursorLiteral),
+                        cb.and(cb.equal(sortPath, cursorValue), cb.lessThan(idPath, criteria.getCursorId()))));
+            }
+        }
+
+        query.select(task).where(predicates.toArray(new Predicate[0]));
+        if (criteria.isAscending()) {
+            query.orderBy(cb.asc(sortPath), cb.asc(idPath));
+        } else {
+            query.orderBy(cb.desc(sortPath), cb.desc(idPath));
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.nullworking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nullworking.model.UploadPart;
+
+@Repository
+public interface UploadPartRepository extends JpaRepository<UploadPart, Long> {
+
+    List<UploadPart> findBySessionIdOrderByPartNumber(Long sessionId);
+
+    /**
+     * 记录分片上传结果，同一分片重传时覆盖 ETag；在上传线程池中调用，自带事务
+     * 只在会话仍为上传中（status = 0）时写入，读取会话行时与合并/取消的行锁互斥
+     * @return 0 表示会话已结束，分片未记录
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO upload_part (session_id, part_number, etag, part_size, upload_time) " +
+                   "SELECT s.id, :partNumber, :etag, :partSize, :uploadTime FROM upload_session s WHERE s.id = :sessionId AND s.status = 0 " +
+                   "ON DUPLICATE KEY UPDATE etag = VALUES(etag), part_size = VALUES(part_size), upload_time = VALUES(upload_time)",
+           nativeQuery = true)
+    int upsertIfUploading(@Param("sessionId") Long sessionId, @Param("partNumber") Integer partNumber, @Param("etag") String etag,
+                          @Param("partSize") Long partSize, @Param("uploadTime") LocalDateTime uploadTime);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadPart p WHERE p.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+}
@@ -0,0 +1,40 @@
+package com.nullworking.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nullworking.model.UploadSession;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+
+    /**
+     * 加行锁读取会话，合并与取消操作互斥
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findForUpdate(@Param("id") Long id);
+
+    /**
+     * 将上传中的会话改为目标状态，返回 0 表示会话已被其他请求完成或取消
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = :status WHERE s.id = :id AND s.status = 0")
+    int finishIfUploading(@Param("id") Long id, @Param("status") Integer status);
+
+    @Query("SELECT s FROM UploadSession s WHERE s.status = 0 AND s.creationTime < :cutoff ORDER BY s.id")
+    List<UploadSession> findExpired(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
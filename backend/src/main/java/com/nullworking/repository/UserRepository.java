@@ -1,9 +1,12 @@
 package com.nullworking.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.nullworking.model.User;
@@ -31,4 +34,16 @@ public interface UserRepository extends JpaRepository<User, Integer> {
      * 查询所有指定状态的用户
      */
     List<User> findByStatus(Byte status);
+
+    /**
+     * 批量查询用户的华为推送token（只取该列，不加载整个用户实体）
+     */
+    @Query("SELECT u.userId, u.huaweiPushToken FROM User u WHERE u.userId IN :userIds AND u.huaweiPushToken IS NOT NULL AND u.huaweiPushToken <> ''")
+    List<Object[]> findHuaweiPushTokensByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * 批量查询用户并一并加载角色，用于一次性校验任务执行者
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.role WHERE u.userId IN :userIds")
+    List<User> findWithRoleByUserIdIn(@Param("userIds") Collection<Integer> userIds);
 }
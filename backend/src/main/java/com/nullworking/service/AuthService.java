@@ -6,10 +6,6 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.nullworking.common.ApiResponse;
@@ -18,11 +14,15 @@ import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.concurrent.RejectedExecutionException;
 import com.nullworking.model.User;
 import com.nullworking.model.dto.RegisterRequest;
 import com.nullworking.repository.UserRepository;
 import com.nullworking.util.JwtUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class AuthService {
 
@@ -30,7 +30,10 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -41,15 +44,21 @@ public class AuthService {
     @Autowired
     private VerificationCodeService verificationCodeService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Value("${jwt.secret}")
     private String jwtSecret; // 复用JWT密钥作为加密密钥，不修改配置文件
 
     // 所有的业务逻辑将在这里实现
 
     public ApiResponse<Map<String, Object>> login(String userName, String password) {
-        Map<String, Object> data = new HashMap<>();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "failure";
         try {
+            Map<String, Object> data = new HashMap<>();
             // 先根据用户名查询用户，区分“用户不存在/密码错误”和“已离职(软删除)”的场景
+            // 这里直接校验密码，不再经过 AuthenticationManager 二次查询用户
             User user = userRepository.findByUserName(userName);
             if (user == null) {
                 // 用户名不存在：保持原有提示，防止信息泄露
@@ -61,19 +70,28 @@ public class AuthService {
                 return ApiResponse.error(403, "该账号已离职，无法登录");
             }
 
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(userName, password)
-            );
+            if (password == null || user.getPassword() == null
+                    || !passwordHashingService.matches(password, user.getPassword())) {
+                return ApiResponse.error(401, "用户名或密码错误");
+            }
             // 如果认证成功
             String jwt = jwtUtil.generateToken(user.getUserId(), user.getUserName());
 
             data.put("token", jwt);
             data.put("userId",user.getUserId());
             data.put("userName",user.getRealName());
+            result = "success";
             return ApiResponse.success(data);
 
-        } catch (AuthenticationException e) {
-            return ApiResponse.error(401, "用户名或密码错误");
+        } catch (RejectedExecutionException e) {
+            // 密码校验线程池已满：快速失败，让客户端稍后重试
+            result = "busy";
+            return ApiResponse.error(503, "登录人数过多，请稍后重试");
+        } finally {
+            sample.stop(Timer.builder("auth.login.latency")
+                    .tag("result", result)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
         }
     }
 
@@ -87,8 +105,12 @@ public class AuthService {
             return ApiResponse.error(400, "真实姓名为必填项");
         }
         // 密码加密
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        String encodedPassword = encoder.encode(request.getPassword());
+        String encodedPassword;
+        try {
+            encodedPassword = passwordHashingService.encode(request.getPassword());
+        } catch (RejectedExecutionException e) {
+            return ApiResponse.error(503, "服务繁忙，请稍后重试");
+        }
         User user = new User();
         user.setUserName(request.getUserName());
         user.setPassword(encodedPassword);
@@ -155,9 +177,13 @@ public class AuthService {
         if (!ok) {
             return ApiResponse.error(400, "验证码错误或已过期");
         }
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        user.setPassword(encoder.encode(newPassword));
+        try {
+            user.setPassword(passwordHashingService.encode(newPassword));
+        } catch (RejectedExecutionException e) {
+            return ApiResponse.error(503, "服务繁忙，请稍后重试");
+        }
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getUserName());
         return ApiResponse.success("密码重置成功");
     }
 
@@ -0,0 +1,387 @@
+package com.nullworking.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.config.CosConfig;
+import com.nullworking.model.LogFile;
+import com.nullworking.model.UploadPart;
+import com.nullworking.model.UploadSession;
+import com.nullworking.model.dto.ChunkedUploadInitRequest;
+import com.nullworking.repository.LogFileRepository;
+import com.nullworking.repository.UploadPartRepository;
+import com.nullworking.repository.UploadSessionRepository;
+import com.qcloud.cos.COSClient;
+import com.qcloud.cos.model.AbortMultipartUploadRequest;
+import com.qcloud.cos.model.CompleteMultipartUploadRequest;
+import com.qcloud.cos.model.InitiateMultipartUploadRequest;
+import com.qcloud.cos.model.ObjectMetadata;
+import com.qcloud.cos.model.PartETag;
+import com.qcloud.cos.model.UploadPartRequest;
+import com.qcloud.cos.model.UploadPartResult;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.transaction.Transactional;
+
+/**
+ * 日志附件分片上传：初始化会话 → 并行上传分片 → 合并为日志附件
+ * 分片请求体在请求线程上读取，写入 COS 在独立的有界线程池上异步完成，控制器不必等待 COS 返回；
+ * 读取前先占用缓冲名额，内存中的分片数超过上限或线程池队列已满时立即返回 503。
+ * 会话与已上传分片持久化在数据库中，客户端断线后查询会话即可只补传缺失的分片；超时未完成的会话定时取消并清理。
+ */
+@Service
+public class ChunkedUploadService {
+
+    // COS 分片上传限制：最多 10000 个分片，除最后一片外每片不小于 1MB
+    private static final int MAX_PARTS = 10000;
+
+    private static final long MIN_PART_SIZE = 1024 * 1024;
+
+    @Autowired
+    private COSClient cosClient;
+
+    @Autowired
+    private CosConfig cosConfig;
+
+    @Autowired
+    private LogFileService logFileService;
+
+    @Autowired
+    private LogFileRepository logFileRepository;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UploadPartRepository uploadPartRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${upload.chunked.part-size-bytes:5242880}")
+    private long defaultPartSize;
+
+    @Value("${upload.chunked.max-file-size-bytes:2147483648}")
+    private long maxFileSize;
+
+    @Value("${upload.chunked.threads:4}")
+    private int threads;
+
+    @Value("${upload.chunked.queue-capacity:16}")
+    private int queueCapacity;
+
+    // 读取中、排队中与写入中的分片数据都在内存中，该上限 × 分片大小即为分片缓冲的最大占用
+    @Value("${upload.chunked.max-buffered-parts:20}")
+    private int maxBufferedParts;
+
+    @Value("${upload.chunked.expire-hours:24}")
+    private int expireHours;
+
+    @Value("${upload.chunked.cleanup-batch-size:100}")
+    private int cleanupBatchSize;
+
+    private ThreadPoolExecutor executor;
+
+    private Semaphore bufferPermits;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "chunked-upload-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        bufferPermits = new Semaphore(maxBufferedParts);
+        Gauge.builder("upload.chunked.queue_depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("upload.chunked.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 初始化分片上传，由服务端决定分片大小
+     * @return uploadId 会话ID，partSize 分片大小，totalParts 分片数
+     */
+    public ApiResponse<Map<String, Object>> initUpload(Integer userId, ChunkedUploadInitRequest request) {
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            return ApiResponse.error(400, "文件名不能为空");
+        }
+        if (request.getFileSize() == null || request.getFileSize() <= 0) {
+            return ApiResponse.error(400, "文件大小错误");
+        }
+        if (request.getFileSize() > maxFileSize) {
+            return ApiResponse.error(400, "文件大小不能超过" + maxFileSize / (1024 * 1024) + "MB");
+        }
+        String fileType = request.getFileType() == null || request.getFileType().isBlank()
+                ? "application/octet-stream" : request.getFileType();
+
+        long partSize = Math.max(Math.max(defaultPartSize, MIN_PART_SIZE), (request.getFileSize() + MAX_PARTS - 1) / MAX_PARTS);
+        int totalParts = (int) ((request.getFileSize() + partSize - 1) / partSize);
+        String cosKey = logFileService.newStorageKey(request.getFileName());
+
+        String cosUploadId;
+        try {
+            ObjectMetadata objectMetadata = new ObjectMetadata();
+            objectMetadata.setContentType(fileType);
+            cosUploadId = cosClient.initiateMultipartUpload(
+                    new InitiateMultipartUploadRequest(cosConfig.getBucketName(), cosKey, objectMetadata)).getUploadId();
+        } catch (RuntimeException e) {
+            System.err.println("初始化分片上传失败: " + e.getMessage());
+            return ApiResponse.error(500, "初始化分片上传失败: " + e.getMessage());
+        }
+
+        UploadSession session = new UploadSession();
+        session.setUploaderId(userId);
+        session.setOriginalName(request.getFileName());
+        session.setFileType(fileType);
+        session.setFileSize(request.getFileSize());
+        session.setPartSize(partSize);
+        session.setTotalParts(totalParts);
+        session.setStoragePath(cosKey);
+        session.setCosUploadId(cosUploadId);
+        session.setStatus(UploadSession.STATUS_UPLOADING);
+        session.setCreationTime(LocalDateTime.now());
+        uploadSessionRepository.save(session);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("uploadId", session.getId());
+        data.put("partSize", partSize);
+        data.put("totalParts", totalParts);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 查询会话状态与已上传的分片号，用于断点续传
+     */
+    public ApiResponse<Map<String, Object>> getUpload(Integer userId, Long uploadId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId).orElse(null);
+        if (session == null || !session.getUploaderId().equals(userId)) {
+            return ApiResponse.error(404, "上传会话不存在");
+        }
+        List<Integer> uploadedParts = new ArrayList<>();
+        for (UploadPart part : uploadPartRepository.findBySessionIdOrderByPartNumber(uploadId)) {
+            uploadedParts.add(part.getPartNumber());
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("uploadId", session.getId());
+        data.put("fileName", session.getOriginalName());
+        data.put("fileSize", session.getFileSize());
+        data.put("partSize", session.getPartSize());
+        data.put("totalParts", session.getTotalParts());
+        data.put("status", session.getStatus());
+        data.put("fileId", session.getFileId());
+        data.put("uploadedParts", uploadedParts);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 上传一个分片：校验后交给上传线程池写入 COS，成功后记录分片 ETag；同一分片可重复上传
+     * 先按 Content-Length 校验分片大小，再从请求体读取恰好一个分片的字节，超长或缺少长度的请求不会被读入内存；读取在请求线程上进行，同时缓冲的分片数受 max-buffered-parts 限制
+     * @param partNumber 分片号，从 1 开始
+     * @param request 请求体为分片内容，除最后一片外长度必须等于 partSize
+     */
+    public CompletableFuture<ApiResponse<Map<String, Object>>> uploadPart(Integer userId, Long uploadId, int partNumber, HttpServletRequest request) {
+        UploadSession session = uploadSessionRepository.findById(uploadId).orElse(null);
+        if (session == null || !session.getUploaderId().equals(userId)) {
+            return CompletableFuture.completedFuture(ApiResponse.error(404, "上传会话不存在"));
+        }
+        if (session.getStatus() != UploadSession.STATUS_UPLOADING) {
+            return CompletableFuture.completedFuture(ApiResponse.error(409, "上传会话已结束"));
+        }
+        if (partNumber < 1 || partNumber > session.getTotalParts()) {
+            return CompletableFuture.completedFuture(ApiResponse.error(400, "分片号错误"));
+        }
+        long expectedSize = partNumber < session.getTotalParts()
+                ? session.getPartSize()
+                : session.getFileSize() - session.getPartSize() * (session.getTotalParts() - 1);
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0) {
+            return CompletableFuture.completedFuture(ApiResponse.error(411, "缺少Content-Length"));
+        }
+        if (contentLength != expectedSize) {
+            return CompletableFuture.completedFuture(ApiResponse.error(400, "分片大小应为" + expectedSize + "字节"));
+        }
+
+        // 读取请求体前占用缓冲名额，名额在分片写入完成（或未能提交）后释放
+        if (!bufferPermits.tryAcquire()) {
+            return CompletableFuture.completedFuture(ApiResponse.error(503, "上传繁忙，请稍后重试"));
+        }
+        boolean submitted = false;
+        try {
+            InputStream body = request.getInputStream();
+            byte[] data = body.readNBytes((int) expectedSize);
+            if (data.length != expectedSize || body.read() != -1) {
+                return CompletableFuture.completedFuture(ApiResponse.error(400, "分片大小应为" + expectedSize + "字节"));
+            }
+            CompletableFuture<ApiResponse<Map<String, Object>>> future =
+                    CompletableFuture.supplyAsync(() -> storePart(session, partNumber, data), executor);
+            submitted = true;
+            return future.whenComplete((result, e) -> bufferPermits.release());
+        } catch (IOException e) {
+            System.err.println("读取分片失败, uploadId=" + uploadId + ", part=" + partNumber + ": " + e.getMessage());
+            return CompletableFuture.completedFuture(ApiResponse.error(400, "读取分片失败: " + e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ApiResponse.error(503, "上传繁忙，请稍后重试"));
+        } finally {
+            if (!submitted) {
+                bufferPermits.release();
+            }
+        }
+    }
+
+    private ApiResponse<Map<String, Object>> storePart(UploadSession session, int partNumber, byte[] data) {
+        try {
+            UploadPartRequest request = new UploadPartRequest();
+            request.setBucketName(cosConfig.getBucketName());
+            request.setKey(session.getStoragePath());
+            request.setUploadId(session.getCosUploadId());
+            request.setPartNumber(partNumber);
+            request.setPartSize(data.length);
+            request.setInputStream(new ByteArrayInputStream(data));
+            // 由 COS 校验分片内容，传输中损坏的分片直接失败，由客户端重传
+            request.setMd5Digest(Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(data)));
+            UploadPartResult result = cosClient.uploadPart(request);
+            String etag = result.getPartETag().getETag();
+
+            // 仅在会话仍为上传中时记录，与合并/取消并发时后到的分片不会写入已结束的会话
+            if (uploadPartRepository.upsertIfUploading(session.getId(), partNumber, etag, (long) data.length, LocalDateTime.now()) == 0) {
+                return ApiResponse.error(409, "上传会话已结束");
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("partNumber", partNumber);
+            response.put("etag", etag);
+            return ApiResponse.success(response);
+        } catch (NoSuchAlgorithmException | RuntimeException e) {
+            System.err.println("分片上传失败, uploadId=" + session.getId() + ", part=" + partNumber + ": " + e.getMessage());
+            return ApiResponse.error(500, "分片上传失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 合并全部分片并生成日志附件，返回文件ID（与普通上传接口一致，用于创建/更新日志时关联）
+     * 会话行加锁，重复提交合并时后到的请求返回 409。
+     */
+    @Transactional
+    public ApiResponse<Integer> completeUpload(Integer userId, Long uploadId) {
+        UploadSession session = uploadSessionRepository.findForUpdate(uploadId).orElse(null);
+        if (session == null || !session.getUploaderId().equals(userId)) {
+            return ApiResponse.error(404, "上传会话不存在");
+        }
+        if (session.getStatus() != UploadSession.STATUS_UPLOADING) {
+            return ApiResponse.error(409, "上传会话已结束");
+        }
+        List<UploadPart> parts = uploadPartRepository.findBySessionIdOrderByPartNumber(uploadId);
+        if (parts.size() != session.getTotalParts()) {
+            return ApiResponse.error(400, "分片未全部上传：已上传" + parts.size() + "/" + session.getTotalParts());
+        }
+
+        List<PartETag> partETags = new ArrayList<>(parts.size());
+        for (UploadPart part : parts) {
+            partETags.add(new PartETag(part.getPartNumber(), part.getEtag()));
+        }
+        try {
+            cosClient.completeMultipartUpload(new CompleteMultipartUploadRequest(
+                    cosConfig.getBucketName(), session.getStoragePath(), session.getCosUploadId(), partETags));
+        } catch (RuntimeException e) {
+            System.err.println("合并分片失败, uploadId=" + uploadId + ": " + e.getMessage());
+            return ApiResponse.error(500, "合并分片失败: " + e.getMessage());
+        }
+
+        LogFile logFile = new LogFile();
+        logFile.setOriginalName(session.getOriginalName());
+        logFile.setStoragePath(session.getStoragePath());
+        logFile.setFileType(session.getFileType());
+        logFile.setFileSize(session.getFileSize());
+        logFile.setUploadTime(LocalDateTime.now());
+        logFile.setUploaderId(userId);
+        logFileRepository.save(logFile);
+
+        session.setStatus(UploadSession.STATUS_COMPLETED);
+        session.setFileId(logFile.getFileId());
+        uploadPartRepository.deleteBySessionId(uploadId);
+        return ApiResponse.success(logFile.getFileId());
+    }
+
+    /**
+     * 取消分片上传，释放 COS 上已上传的分片
+     */
+    @Transactional
+    public ApiResponse<Void> abortUpload(Integer userId, Long uploadId) {
+        UploadSession session = uploadSessionRepository.findForUpdate(uploadId).orElse(null);
+        if (session == null || !session.getUploaderId().equals(userId)) {
+            return ApiResponse.error(404, "上传会话不存在");
+        }
+        if (session.getStatus() != UploadSession.STATUS_UPLOADING) {
+            return ApiResponse.error(409, "上传会话已结束");
+        }
+        abortCosUpload(session);
+        session.setStatus(UploadSession.STATUS_ABORTED);
+        uploadPartRepository.deleteBySessionId(uploadId);
+        return ApiResponse.success();
+    }
+
+    /**
+     * 定时取消创建后超过保留时间仍未完成的会话
+     */
+    @Scheduled(cron = "${upload.chunked.cleanup-cron:0 15 * * * *}")
+    public void cleanupExpiredUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expireHours);
+        List<UploadSession> expired;
+        do {
+            expired = uploadSessionRepository.findExpired(cutoff, PageRequest.of(0, cleanupBatchSize));
+            for (UploadSession session : expired) {
+                // 条件更新抢占会话，期间被用户完成的会话不会被取消
+                if (uploadSessionRepository.finishIfUploading(session.getId(), UploadSession.STATUS_ABORTED) == 1) {
+                    abortCosUpload(session);
+                    uploadPartRepository.deleteBySessionId(session.getId());
+                }
+            }
+        } while (expired.size() == cleanupBatchSize);
+    }
+
+    private void abortCosUpload(UploadSession session) {
+        try {
+            cosClient.abortMultipartUpload(new AbortMultipartUploadRequest(
+                    cosConfig.getBucketName(), session.getStoragePath(), session.getCosUploadId()));
+        } catch (RuntimeException e) {
+            // COS 侧还可配置生命周期规则清理未完成的分片上传，这里失败只记录
+            System.err.println("取消分片上传失败, uploadId=" + session.getId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -33,6 +33,9 @@ public class CommentService {
     @Autowired
     private NotificationService notificationService; // 注入 NotificationService
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     @Transactional
     @SuppressWarnings("null") // 抑制空类型安全警告
     public ApiResponse<Integer> createComment(CommentCreateRequest request, Integer userId) {
@@ -50,6 +53,7 @@ public class CommentService {
         c.setIsDeleted(0);
 
         commentRepository.save(c);
+        searchIndexService.indexCommentAfterCommit(c, logOptional.get());
 
         // 获取被评论日志的拥有者 ID
         Integer logOwnerId = logOptional.get().getUser().getUserId();
@@ -76,6 +80,7 @@ public class CommentService {
         }
         c.setUpdatedAt(LocalDateTime.now());
         commentRepository.save(c);
+        logRepository.findById(c.getLogId()).ifPresent(log -> searchIndexService.indexCommentAfterCommit(c, log));
         return ApiResponse.success();
     }
 
@@ -91,6 +96,7 @@ public class CommentService {
         c.setIsDeleted(1);
         c.setUpdatedAt(LocalDateTime.now());
         commentRepository.save(c);
+        searchIndexService.deleteCommentAfterCommit(commentId);
         return ApiResponse.success();
     }
 
@@ -0,0 +1,101 @@
+package com.nullworking.service;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 调用华为推送 REST 接口
+ * 推送地址可通过 huawei.push.url 覆盖，便于在本地指向模拟服务
+ */
+@Component
+public class HuaweiPushClient {
+
+    /** 华为推送单次请求允许的最大 token 数 */
+    public static final int MAX_TOKENS_PER_REQUEST = 1000;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private HuaweiPushTokenManager huaweiPushTokenManager;
+
+    @Value("${huawei.push.appId}")
+    private String huaweiPushAppId;
+
+    @Value("${huawei.push.url:https://push-api.cloud.huawei.com/v3/%s/messages:send}")
+    private String huaweiPushUrl;
+
+    /**
+     * 构建华为推送消息体
+     * @param title 通知标题
+     * @param body 通知正文
+     * @param tokens 接收设备的推送 token
+     */
+    public Map<String, Object> buildMessage(String title, String body, Collection<String> tokens) {
+        Map<String, Object> notificationPayload = new HashMap<>();
+        notificationPayload.put("category", "WORK");
+        notificationPayload.put("title", title);
+        notificationPayload.put("body", body);
+        Map<String, Object> clickAction = new HashMap<>();
+        clickAction.put("actionType", 0);
+        notificationPayload.put("clickAction", clickAction);
+        notificationPayload.put("style", 0);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("notification", notificationPayload);
+
+        Map<String, Object> target = new HashMap<>();
+        target.put("token", List.copyOf(tokens));
+
+        Map<String, Object> messageBody = new HashMap<>();
+        messageBody.put("payload", payload);
+        messageBody.put("target", target);
+        return messageBody;
+    }
+
+    /**
+     * 同步发送推送消息
+     * @param messageBody 推送的原始消息体，直接作为华为推送API的请求体
+     * @throws RuntimeException 签发令牌失败或推送接口返回错误
+     */
+    public void send(Map<String, Object> messageBody) {
+        try {
+            String jwt = Objects.requireNonNull(huaweiPushTokenManager.getAccessToken(), "JWT token must not be null");
+            String pushUrl = Objects.requireNonNull(String.format(huaweiPushUrl, huaweiPushAppId), "Push URL must not be null");
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(jwt);
+            headers.set("Push-Type", "0");
+
+            HttpEntity<String> request = new HttpEntity<>(OBJECT_MAPPER.writeValueAsString(messageBody), headers);
+
+            ResponseEntity<String> response = restTemplate.postForEntity(pushUrl, request, String.class);
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("Failed to send Huawei Push Notification: " + response.getStatusCode() + " - " + response.getBody());
+            }
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException | IOException | NullPointerException e) {
+            throw new RuntimeException("Error creating JWT or sending Huawei Push Notification: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nullworking.service;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nullworking.util.JsonWebTokenFactory;
+import com.nullworking.util.JsonWebTokenFactory.PushCredentials;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 华为推送鉴权令牌管理
+ * 私钥只加载一次，签发后的 JWT 在有效期内复用；后台任务在过期前提前续签，发送线程通常只做一次 volatile 读
+ */
+@Component
+public class HuaweiPushTokenManager {
+
+    private static class CachedToken {
+        final String token;
+        final long refreshAt;
+        final long expireAt;
+        CachedToken(String token, long refreshAt, long expireAt) { this.token = token; this.refreshAt = refreshAt; this.expireAt = expireAt; }
+    }
+
+    private final Object lock = new Object();
+
+    private volatile PushCredentials credentials;
+
+    private volatile CachedToken cachedToken;
+
+    private final Counter refreshCounter;
+
+    @Value("${huawei.push.token-ttl-seconds:3600}")
+    private long tokenTtlSeconds;
+
+    @Value("${huawei.push.token-refresh-before-seconds:600}")
+    private long refreshBeforeSeconds;
+
+    @Autowired
+    public HuaweiPushTokenManager(MeterRegistry meterRegistry) {
+        this.refreshCounter = Counter.builder("push.huawei.token_refreshes").register(meterRegistry);
+    }
+
+    /**
+     * 获取当前可用的鉴权令牌，仅在尚未签发或已经过期时同步签发
+     * @return PS256 签名的 JWT
+     */
+    public String getAccessToken() throws NoSuchAlgorithmException, InvalidKeySpecException, IOException {
+        CachedToken current = cachedToken;
+        if (current != null && System.currentTimeMillis() / 1000 < current.expireAt) {
+            return current.token;
+        }
+        synchronized (lock) {
+            // 并发发送时只有第一个线程负责签发，其余线程直接复用结果
+            current = cachedToken;
+            if (current != null && System.currentTimeMillis() / 1000 < current.expireAt) {
+                return current.token;
+            }
+            return refresh().token;
+        }
+    }
+
+    /**
+     * 定时检查令牌是否进入续签窗口，提前签发新令牌，避免发送线程遇到过期令牌
+     */
+    @Scheduled(fixedDelayString = "${huawei.push.token-refresh-check-ms:60000}")
+    public void refreshIfNeeded() {
+        CachedToken current = cachedToken;
+        // 从未发送过推送时不主动加载私钥
+        if (current == null || System.currentTimeMillis() / 1000 < current.refreshAt) {
+            return;
+        }
+        synchronized (lock) {
+            if (cachedToken != current) {
+                return;
+            }
+            try {
+                refresh();
+            } catch (NoSuchAlgorithmException | InvalidKeySpecException | IOException | RuntimeException e) {
+                // 旧令牌在过期前仍然可用，下次检查时重试
+                System.err.println("Failed to refresh Huawei Push token: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 私钥轮换后调用，丢弃已加载的凭据与令牌
+     */
+    public void reset() {
+        synchronized (lock) {
+            credentials = null;
+            cachedToken = null;
+        }
+    }
+
+    // 调用方须持有 lock
+    private CachedToken refresh() throws NoSuchAlgorithmException, InvalidKeySpecException, IOException {
+        if (credentials == null) {
+            credentials = JsonWebTokenFactory.loadCredentials();
+        }
+        long iat = System.currentTimeMillis() / 1000;
+        long exp = iat + tokenTtlSeconds;
+        String token = JsonWebTokenFactory.createJwt(credentials, iat, exp);
+        // 预留 60 秒余量，避免令牌在请求途中过期
+        CachedToken refreshed = new CachedToken(token,
+                exp - Math.min(refreshBeforeSeconds, tokenTtlSeconds / 2),
+                exp - Math.min(60, tokenTtlSeconds / 10));
+        cachedToken = refreshed;
+        refreshCounter.increment();
+        return refreshed;
+    }
+}
@@ -19,8 +19,12 @@ import com.nullworking.model.dto.FileDownloadInfo;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.net.URL;
 
@@ -36,18 +40,9 @@ public class LogFileService {
     @Autowired
     private CosConfig cosConfig; // 注入 CosConfig 以获取 bucketName
 
-    public LogFile storeFile(MultipartFile file) throws IOException {
+    public LogFile storeFile(MultipartFile file, Integer uploaderId) throws IOException {
         String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        int dotIndex = originalFilename.lastIndexOf('.');
-        if (dotIndex > 0 && dotIndex < originalFilename.length() - 1) {
-            fileExtension = originalFilename.substring(dotIndex);
-        }
-        String fileName = UUID.randomUUID().toString() + fileExtension;
-
-        // 构建 COS 存储路径 (log_files/2025/12/example.log)
-        String datePath = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM"));
-        String cosKey = "log_files/" + datePath + "/" + fileName;
+        String cosKey = newStorageKey(originalFilename);
 
         // 上传到 COS
         ObjectMetadata objectMetadata = new ObjectMetadata();
@@ -63,10 +58,25 @@ public class LogFileService {
         logFile.setFileType(file.getContentType());
         logFile.setFileSize(file.getSize());
         logFile.setUploadTime(LocalDateTime.now());
+        logFile.setUploaderId(uploaderId);
 
         return logFileRepository.save(logFile);
     }
 
+    /**
+     * 生成新的 COS 存储路径 (log_files/2025/12/uuid.扩展名)，分片上传也使用该规则
+     */
+    public String newStorageKey(String originalFilename) {
+        String fileExtension = "";
+        int dotIndex = originalFilename.lastIndexOf('.');
+        if (dotIndex > 0 && dotIndex < originalFilename.length() - 1) {
+            fileExtension = originalFilename.substring(dotIndex);
+        }
+        String fileName = UUID.randomUUID().toString() + fileExtension;
+        String datePath = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM"));
+        return "log_files/" + datePath + "/" + fileName;
+    }
+
     public FileDownloadInfo loadFileAsResource(Integer fileId) throws IOException {
         LogFile logFile = logFileRepository.findById(fileId)
                 .orElseThrow(() -> new IOException("文件未找到，ID：" + fileId));
@@ -88,16 +98,43 @@ public class LogFileService {
         return new FileDownloadInfo(resource, logFile.getOriginalName(), logFile.getFileType());
     }
 
-    public void updateLogIdForFiles(List<Integer> fileIds, Integer logId) {
-        // 先解除原先关联该logId的文件的关联
-        removeLogIdForFiles(logId);
-        if (fileIds != null && !fileIds.isEmpty()) {
-            List<LogFile> logFiles = logFileRepository.findAllById(fileIds);
-            for (LogFile logFile : logFiles) {
-                logFile.setLogId(logId);
-            }
-            logFileRepository.saveAll(logFiles);
+    /**
+     * 校验文件能否关联到日志：每个文件须已关联到该日志，或由该用户上传且尚未关联其他日志
+     * @param logId 日志ID，新建日志时为空
+     */
+    public boolean canAttachFiles(List<Integer> fileIds, Integer logId, Integer userId) {
+        if (fileIds == null || fileIds.isEmpty()) {
+            return true;
+        }
+        Set<Integer> distinctIds = new HashSet<>(fileIds);
+        long attachable = logId != null
+                ? logFileRepository.countAttachable(distinctIds, logId, userId)
+                : logFileRepository.countUnattachedOwned(distinctIds, userId);
+        return attachable == distinctIds.size();
+    }
+
+    /**
+     * 一次查询取回给定文件中可关联到新建日志的文件ID（由该用户上传且尚未关联其他日志）
+     */
+    public Set<Integer> findAttachableNewFileIds(Collection<Integer> fileIds, Integer userId) {
+        if (fileIds == null || fileIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(logFileRepository.findUnattachedOwnedIds(new HashSet<>(fileIds), userId));
+    }
+
+    /**
+     * 将日志的附件替换为给定文件集合：两条批量 UPDATE，在调用方事务内执行
+     * 先解除不在新集合中的文件，再关联新集合中该用户上传且未关联的文件，调用前应先用 {@link #canAttachFiles} 校验
+     */
+    public void updateLogIdForFiles(List<Integer> fileIds, Integer logId, Integer userId) {
+        if (fileIds == null || fileIds.isEmpty()) {
+            logFileRepository.detachAll(logId);
+            return;
         }
+        Set<Integer> distinctIds = new HashSet<>(fileIds);
+        logFileRepository.detachExcept(logId, distinctIds);
+        logFileRepository.attach(logId, distinctIds, userId);
     }
 
     public List<LogFile> getLogFilesByLogId(Integer logId) {
@@ -105,11 +142,7 @@ public class LogFileService {
     }
 
     public void removeLogIdForFiles(Integer logId) {
-        List<LogFile> logFiles = logFileRepository.findByLogId(logId);
-        for (LogFile logFile : logFiles) {
-            logFile.setLogId(null);
-        }
-        logFileRepository.saveAll(logFiles);
+        logFileRepository.detachAll(logId);
     }
 
     // 可选：添加删除 COS 对象的方法
@@ -0,0 +1,151 @@
+package com.nullworking.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.model.Task;
+import com.nullworking.model.dto.LogAreaCriteria;
+import com.nullworking.model.dto.LogGeoItem;
+import com.nullworking.repository.LogRepository;
+import com.nullworking.repository.TaskExecutorRelationRepository;
+import com.nullworking.repository.TaskRepository;
+import com.nullworking.util.GeoHash;
+
+/**
+ * 按打卡位置查询日志：区域内的日志通过 Geohash 前缀走索引范围扫描，只对命中网格的少量候选做精确的范围/距离判断
+ * 区域外的日志必须限定任务，按任务索引读取该任务带位置的日志后排除区域内的。范围/距离判断均在查询中完成，条数限制只作用于命中的日志。
+ */
+@Service
+public class LogLocationService {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final int MAX_RESULTS = 500;
+
+    private static final int MAX_GEOHASH_CELLS = 16;
+
+    private static final int MAX_DATE_RANGE_DAYS = 366;
+
+    private static final double MAX_RADIUS_METERS = 50_000;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExecutorRelationRepository taskExecutorRelationRepository;
+
+    /**
+     * 查询矩形区域内（或外）的日志
+     * @param taskId 为空时查询当前用户创建的任务下的日志与本人日志；outside 为 true 时必填
+     */
+    public ApiResponse<Map<String, Object>> findInBox(Integer userId, Integer taskId, LocalDate startDate, LocalDate endDate,
+                                                      double minLat, double minLng, double maxLat, double maxLng, boolean outside) {
+        if (!GeoHash.isValid(minLat, minLng) || !GeoHash.isValid(maxLat, maxLng) || minLat > maxLat || minLng > maxLng) {
+            return ApiResponse.error(400, "区域范围错误");
+        }
+        return query(userId, taskId, startDate, endDate, new double[] {minLat, minLng, maxLat, maxLng}, null, null, 0, outside);
+    }
+
+    /**
+     * 查询以某点为中心、指定半径内（或外）的日志，结果附带与中心点的距离
+     * @param radiusMeters 半径（米），最大 {@value #MAX_RADIUS_METERS}
+     */
+    public ApiResponse<Map<String, Object>> findWithinRadius(Integer userId, Integer taskId, LocalDate startDate, LocalDate endDate,
+                                                             double latitude, double longitude, double radiusMeters, boolean outside) {
+        if (!GeoHash.isValid(latitude, longitude)) {
+            return ApiResponse.error(400, "中心点坐标错误");
+        }
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            return ApiResponse.error(400, "半径需大于0且不超过" + (int) MAX_RADIUS_METERS + "米");
+        }
+        return query(userId, taskId, startDate, endDate, GeoHash.boundingBox(latitude, longitude, radiusMeters),
+                latitude, longitude, radiusMeters, outside);
+    }
+
+    private ApiResponse<Map<String, Object>> query(Integer userId, Integer taskId, LocalDate startDate, LocalDate endDate,
+                                                   double[] box, Double centerLat, Double centerLng, double radiusMeters, boolean outside) {
+        if (startDate.isAfter(endDate)) {
+            return ApiResponse.error(400, "开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DATE_RANGE_DAYS) {
+            return ApiResponse.error(400, "日期范围不能超过" + MAX_DATE_RANGE_DAYS + "天");
+        }
+        if (outside && taskId == null) {
+            return ApiResponse.error(400, "查询区域外的日志需指定任务");
+        }
+        if (taskId != null) {
+            List<Task> tasks = taskRepository.findWithCreatorByIds(Collections.singletonList(taskId));
+            if (tasks.isEmpty()) {
+                return ApiResponse.error(404, "任务未找到");
+            }
+            Task task = tasks.get(0);
+            if (!task.getCreator().getUserId().equals(userId)
+                    && !taskExecutorRelationRepository.existsByTask_TaskIdAndExecutor_UserId(taskId, userId)) {
+                return ApiResponse.error(403, "无权限查看该任务的日志");
+            }
+        }
+
+        // 区域判断在查询中完成，多取一条用于判断是否截断
+        LogAreaCriteria criteria = new LogAreaCriteria();
+        criteria.setUserId(userId);
+        criteria.setTaskId(taskId);
+        criteria.setStartDate(startDate);
+        criteria.setEndDate(endDate);
+        if (!outside) {
+            criteria.setGeohashPrefixes(GeoHash.cover(box[0], box[1], box[2], box[3], MAX_GEOHASH_CELLS));
+        }
+        criteria.setMinLat(box[0]);
+        criteria.setMinLng(box[1]);
+        criteria.setMaxLat(box[2]);
+        criteria.setMaxLng(box[3]);
+        criteria.setCenterLat(centerLat);
+        criteria.setCenterLng(centerLng);
+        criteria.setRadiusMeters(radiusMeters);
+        criteria.setOutside(outside);
+        List<LogGeoItem> logs = logRepository.findInArea(criteria, MAX_RESULTS + 1);
+        boolean truncated = logs.size() > MAX_RESULTS;
+        if (truncated) {
+            logs = logs.subList(0, MAX_RESULTS);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (LogGeoItem l : logs) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("logId", l.getLogId());
+            item.put("taskId", l.getTaskId());
+            item.put("taskTitle", l.getTaskTitle());
+            item.put("userId", l.getUserId());
+            item.put("userName", l.getUserName());
+            item.put("logTitle", l.getLogTitle());
+            item.put("logDate", l.getLogDate());
+            item.put("logStatus", l.getLogStatus());
+            item.put("startTime", l.getStartTime() != null ? l.getStartTime().format(TIME_FORMATTER) : null);
+            item.put("endTime", l.getEndTime() != null ? l.getEndTime().format(TIME_FORMATTER) : null);
+            item.put("latitude", l.getLatitude());
+            item.put("longitude", l.getLongitude());
+            if (centerLat != null) {
+                item.put("distance", Math.round(GeoHash.distanceMeters(centerLat, centerLng, l.getLatitude(), l.getLongitude())));
+            }
+            items.add(item);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("total", items.size());
+        data.put("logs", items);
+        data.put("truncated", truncated);
+        return ApiResponse.success(data);
+    }
+}
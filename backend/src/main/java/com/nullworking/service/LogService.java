@@ -5,24 +5,32 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.nullworking.common.ApiResponse;
 import com.nullworking.model.Log;
 import com.nullworking.model.LogFile;
+import com.nullworking.model.SyncTombstone;
 import com.nullworking.model.Task;
 import com.nullworking.model.User;
+import com.nullworking.model.dto.LogCalendarItem;
 import com.nullworking.model.dto.LogCreateRequest;
+import com.nullworking.model.dto.LogTimelineItem;
 import com.nullworking.model.dto.LogUpdateRequest;
 import com.nullworking.repository.LogRepository;
+import com.nullworking.repository.SyncTombstoneRepository;
 import com.nullworking.repository.TaskExecutorRelationRepository;
 import com.nullworking.repository.TaskRepository;
 import com.nullworking.repository.UserRepository;
@@ -32,6 +40,18 @@ import jakarta.transaction.Transactional;
 @Service
 public class LogService {
 
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final int DEFAULT_TIMELINE_PAGE_SIZE = 20;
+
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private static final int MAX_TIMELINE_PAGE_SIZE = 100;
+
     @Autowired
     private LogRepository logRepository;
 
@@ -50,21 +70,34 @@ public class LogService {
     @Autowired
     private NotificationService notificationService; // 注入 NotificationService
 
+    @Autowired
+    private TaskDeadlineScheduler taskDeadlineScheduler;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private LogSummaryService logSummaryService;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
     public ApiResponse<Map<String, Object>> listLogs(Integer userId, LocalDate startDate, LocalDate endDate) {
-        List<Log> logs = logRepository.findByUserUserIdAndLogDateBetween(userId, startDate, endDate);
+        // 单条投影查询取回日历所需字段与任务标题
+        List<LogCalendarItem> logs = logRepository.findCalendarItems(userId, startDate, endDate);
 
-        List<Map<String, Object>> items = new ArrayList<>();
-        for (Log l : logs) {
+        List<Map<String, Object>> items = new ArrayList<>(logs.size());
+        for (LogCalendarItem l : logs) {
             Map<String, Object> item = new HashMap<>();
             item.put("logId", l.getLogId());
-            item.put("taskId", l.getTask() != null ? l.getTask().getTaskId() : null);
-            item.put("taskTitle",l.getTask().getTaskTitle());
+            item.put("taskId", l.getTaskId());
+            item.put("taskTitle", l.getTaskTitle());
             item.put("logTitle", l.getLogTitle());
             item.put("logContent", l.getLogContent());
             item.put("logDate", l.getLogDate());
             item.put("logStatus", l.getLogStatus());
-            item.put("startTime", l.getStartTime().format(DateTimeFormatter.ofPattern("HH:mm")));
-            item.put("endTime", l.getEndTime().format(DateTimeFormatter.ofPattern("HH:mm")));
+            item.put("startTime", l.getStartTime() != null ? l.getStartTime().format(TIME_FORMATTER) : null);
+            item.put("endTime", l.getEndTime() != null ? l.getEndTime().format(TIME_FORMATTER) : null);
             items.add(item);
         }
 
@@ -90,6 +123,10 @@ public class LogService {
         }
         Task task = taskOptional.get();
 
+        if (!logFileService.canAttachFiles(fileIds, null, userId)) {
+            return ApiResponse.error(403, "附件不存在或无权限关联");
+        }
+
         Log log = new Log();
         log.setUser(user);
         log.setTask(task);
@@ -101,36 +138,194 @@ public class LogService {
         log.setLatitude(request.getLatitude());
         log.setLongitude(request.getLongitude());
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        log.setStartTime(LocalTime.parse(request.getStartTime(), formatter));
-        log.setEndTime(LocalTime.parse(request.getEndTime(), formatter));
-        
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        log.setLogDate(LocalDate.parse(request.getLogDate(), dateFormatter));
+        log.setStartTime(LocalTime.parse(request.getStartTime(), TIME_FORMATTER));
+        log.setEndTime(LocalTime.parse(request.getEndTime(), TIME_FORMATTER));
+        log.setLogDate(LocalDate.parse(request.getLogDate(), DATE_FORMATTER));
         log.setCreationTime(LocalDateTime.now());
         log.setUpdateTime(LocalDateTime.now());
 
         logRepository.save(log);
+        searchIndexService.indexLogAfterCommit(log);
+        logSummaryService.invalidateAfterCommit(userId, log.getLogDate());
+
+        // 维护任务的进度与最近活动时间
+        if (request.getLogStatus() == 1) {
+            taskRepository.raiseProgress(task.getTaskId(), request.getTaskProgress(), log.getUpdateTime());
+        } else {
+            taskRepository.touchLastActivity(task.getTaskId(), log.getUpdateTime());
+        }
 
         if (fileIds != null && !fileIds.isEmpty()) {
-            logFileService.updateLogIdForFiles(fileIds, Objects.requireNonNull(log.getLogId()));
+            logFileService.updateLogIdForFiles(fileIds, Objects.requireNonNull(log.getLogId()), userId);
         }
 
         // If task progress is 100% and log status is 1 (completed)
         if (request.getTaskProgress() == 100 && request.getLogStatus() == 1) {
-            task.setCompletionTime(LocalDateTime.now());    
-            task.setTaskStatus((byte)2);
-            taskRepository.save(task);
+            completeTask(task, LocalDateTime.now());
+        }
 
-            // 发送任务完成通知
-            String notificationContent = String.format("您发布的任务‘%s’已完成！", task.getTaskTitle());
-            notificationService.createNotification(Objects.requireNonNull(task.getCreator().getUserId()), notificationContent, "task", Objects.requireNonNull(task.getTaskId()));
+        return ApiResponse.success(Objects.requireNonNull(log.getLogId()));
+    }
+
+    /**
+     * 批量创建日志（移动端离线补传）
+     * 所涉任务一次查询取回，日志以 JDBC 批处理插入；进度维护与任务完成等副作用按任务合并，每个任务只执行一次。
+     * 单条校验失败不影响其余条目，逐条返回结果；任务被本批次完成时，同批次中该任务的待完成日志与单条创建一样被清除，以 410 返回。
+     * @return results 按请求顺序的逐条结果（index、code、message、logId），以及 succeeded、superseded、failed 条数
+     */
+    @Transactional
+    public ApiResponse<Map<String, Object>> createLogs(List<LogCreateRequest> requests, Integer userId) {
+        if (requests == null || requests.isEmpty()) {
+            return ApiResponse.error(400, "日志列表不能为空");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            return ApiResponse.error(400, "单次最多提交" + MAX_BATCH_SIZE + "条日志");
+        }
+        Optional<User> userOptional = userRepository.findById(userId);
+        if (userOptional.isEmpty()) {
+            return ApiResponse.error(404, "用户未找到");
+        }
+        User user = userOptional.get();
 
-            // Clear all pending logs associated with this task
-            logRepository.deleteByTaskTaskIdAndLogStatus(request.getTaskId(), 0); // 0 for pending
+        Set<Integer> taskIds = requests.stream()
+                .map(LogCreateRequest::getTaskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Task> tasksById = new HashMap<>();
+        if (!taskIds.isEmpty()) {
+            for (Task task : taskRepository.findWithCreatorByIds(taskIds)) {
+                tasksById.put(task.getTaskId(), task);
+            }
         }
 
-        return ApiResponse.success(Objects.requireNonNull(log.getLogId()));
+        // 全部附件一次校验，同一文件只能关联到本批次中的一条日志
+        Set<Integer> attachableFileIds = logFileService.findAttachableNewFileIds(requests.stream()
+                .map(LogCreateRequest::getFileIds)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .collect(Collectors.toSet()), userId);
+        Set<Integer> claimedFileIds = new HashSet<>();
+
+        List<Map<String, Object>> results = new ArrayList<>(requests.size());
+        List<Log> logs = new ArrayList<>();
+        List<LogCreateRequest> accepted = new ArrayList<>();
+        List<Map<String, Object>> acceptedResults = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < requests.size(); i++) {
+            LogCreateRequest request = requests.get(i);
+            Map<String, Object> result = new HashMap<>();
+            result.put("index", i);
+            results.add(result);
+
+            Task task = request.getTaskId() != null ? tasksById.get(request.getTaskId()) : null;
+            if (task == null) {
+                result.put("code", 404);
+                result.put("message", "任务未找到");
+                continue;
+            }
+            if (request.getLogTitle() == null || request.getLogContent() == null
+                    || request.getLogStatus() == null || request.getTaskProgress() == null) {
+                result.put("code", 400);
+                result.put("message", "日志标题、内容、状态与进度不能为空");
+                continue;
+            }
+
+            Log log = new Log();
+            try {
+                log.setStartTime(LocalTime.parse(request.getStartTime(), TIME_FORMATTER));
+                log.setEndTime(LocalTime.parse(request.getEndTime(), TIME_FORMATTER));
+                log.setLogDate(LocalDate.parse(request.getLogDate(), DATE_FORMATTER));
+            } catch (RuntimeException e) {
+                result.put("code", 400);
+                result.put("message", "日期或时间格式错误");
+                continue;
+            }
+            Set<Integer> fileIds = request.getFileIds() != null ? new HashSet<>(request.getFileIds()) : Collections.emptySet();
+            if (!attachableFileIds.containsAll(fileIds) || fileIds.stream().anyMatch(claimedFileIds::contains)) {
+                result.put("code", 403);
+                result.put("message", "附件不存在或无权限关联");
+                continue;
+            }
+            claimedFileIds.addAll(fileIds);
+            log.setUser(user);
+            log.setTask(task);
+            log.setLogContent(request.getLogContent());
+            log.setLogTitle(request.getLogTitle());
+            log.setLogStatus(request.getLogStatus());
+            log.setTaskProgress(request.getTaskProgress());
+            log.setLatitude(request.getLatitude());
+            log.setLongitude(request.getLongitude());
+            log.setCreationTime(now);
+            log.setUpdateTime(now);
+            logs.add(log);
+            accepted.add(request);
+            acceptedResults.add(result);
+            result.put("code", 200);
+            result.put("message", "创建成功");
+        }
+
+        // 本批次完成的任务会清除其全部待完成日志，同批次中这些任务的待完成日志不再写入
+        Set<Integer> completedTaskIds = logs.stream()
+                .filter(l -> l.getLogStatus() == 1 && l.getTaskProgress() == 100)
+                .map(l -> l.getTask().getTaskId())
+                .collect(Collectors.toSet());
+        int superseded = 0;
+        for (int i = logs.size() - 1; i >= 0; i--) {
+            Log log = logs.get(i);
+            if (log.getLogStatus() == 0 && completedTaskIds.contains(log.getTask().getTaskId())) {
+                superseded++;
+                Map<String, Object> result = acceptedResults.get(i);
+                result.put("code", 410);
+                result.put("message", "任务已由同批次日志完成，待完成日志已清除");
+                logs.remove(i);
+                accepted.remove(i);
+                acceptedResults.remove(i);
+            }
+        }
+
+        logRepository.saveAll(logs);
+
+        // 按任务合并进度维护与完成处理
+        Map<Integer, Integer> maxCompletedProgressByTask = new HashMap<>();
+        Set<Integer> touchedTaskIds = new HashSet<>();
+        Set<LocalDate> logDates = new HashSet<>();
+        for (int i = 0; i < logs.size(); i++) {
+            Log log = logs.get(i);
+            LogCreateRequest request = accepted.get(i);
+            Integer taskId = log.getTask().getTaskId();
+            touchedTaskIds.add(taskId);
+            if (log.getLogStatus() == 1) {
+                maxCompletedProgressByTask.merge(taskId, log.getTaskProgress(), Math::max);
+            }
+            if (request.getFileIds() != null && !request.getFileIds().isEmpty()) {
+                logFileService.updateLogIdForFiles(request.getFileIds(), log.getLogId(), userId);
+            }
+            searchIndexService.indexLogAfterCommit(log);
+            logDates.add(log.getLogDate());
+        }
+        for (Integer taskId : touchedTaskIds) {
+            Integer progress = maxCompletedProgressByTask.get(taskId);
+            if (progress != null) {
+                taskRepository.raiseProgress(taskId, progress, now);
+            } else {
+                taskRepository.touchLastActivity(taskId, now);
+            }
+        }
+        for (Integer taskId : completedTaskIds) {
+            completeTask(tasksById.get(taskId), now);
+        }
+        logSummaryService.invalidateAfterCommit(userId, logDates.toArray(new LocalDate[0]));
+
+        for (int i = 0; i < logs.size(); i++) {
+            acceptedResults.get(i).put("logId", logs.get(i).getLogId());
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("results", results);
+        data.put("succeeded", logs.size());
+        data.put("superseded", superseded);
+        data.put("failed", requests.size() - logs.size() - superseded);
+        return ApiResponse.success(data);
     }
 
     @Transactional
@@ -142,6 +337,10 @@ public class LogService {
         }
         
         Log log = logOptional.get();
+        LocalDate previousLogDate = log.getLogDate();
+        if (request.getFileIds() != null && !logFileService.canAttachFiles(request.getFileIds(), logId, userId)) {
+            return ApiResponse.error(403, "附件不存在或无权限关联");
+        }
         
         // 更新日志字段
         if (request.getLogTitle() != null) {
@@ -157,16 +356,13 @@ public class LogService {
             log.setTaskProgress(request.getTaskProgress());
         }
         if (request.getStartTime() != null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-            log.setStartTime(LocalTime.parse(request.getStartTime(), formatter));
+            log.setStartTime(LocalTime.parse(request.getStartTime(), TIME_FORMATTER));
         }
         if (request.getEndTime() != null) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-            log.setEndTime(LocalTime.parse(request.getEndTime(), formatter));
+            log.setEndTime(LocalTime.parse(request.getEndTime(), TIME_FORMATTER));
         }
         if (request.getLogDate() != null) {
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            log.setLogDate(LocalDate.parse(request.getLogDate(), dateFormatter));
+            log.setLogDate(LocalDate.parse(request.getLogDate(), DATE_FORMATTER));
         }
         
         // 更新修改时间
@@ -174,26 +370,19 @@ public class LogService {
         
         // 保存日志
         logRepository.save(log);
+        taskRepository.recomputeProgress(log.getTask().getTaskId(), log.getUpdateTime());
+        searchIndexService.indexLogAfterCommit(log);
+        logSummaryService.invalidateAfterCommit(userId, previousLogDate, log.getLogDate());
         
         // 处理文件关联
         if (request.getFileIds() != null) {
-            logFileService.updateLogIdForFiles(request.getFileIds(), log.getLogId());
+            logFileService.updateLogIdForFiles(request.getFileIds(), log.getLogId(), userId);
         } 
         
         // 如果任务进度为100%且日志状态为已完成，更新任务状态
         if (request.getTaskProgress() != null && request.getLogStatus() != null &&
             request.getTaskProgress() == 100 && request.getLogStatus() == 1) {
-            Task task = log.getTask();
-            task.setCompletionTime(LocalDateTime.now());
-            task.setTaskStatus((byte)2);
-            taskRepository.save(task);
-
-            // 发送任务完成通知
-            String notificationContent = String.format("您发布的任务‘%s’已完成！", task.getTaskTitle());
-            notificationService.createNotification(Objects.requireNonNull(task.getCreator().getUserId()), notificationContent, "task", Objects.requireNonNull(task.getTaskId()));
-            
-            // 清除该任务的所有待处理日志
-            logRepository.deleteByTaskTaskIdAndLogStatus(task.getTaskId(), 0);
+            completeTask(log.getTask(), LocalDateTime.now());
         }
         
         return ApiResponse.success();
@@ -212,6 +401,10 @@ public class LogService {
         // 删除日志
         Objects.requireNonNull(log); // 确保 log 非空
         logRepository.delete(log);
+        taskRepository.recomputeProgress(log.getTask().getTaskId(), LocalDateTime.now());
+        recordLogTombstone(log);
+        searchIndexService.deleteLogAfterCommit(logId);
+        logSummaryService.invalidateAfterCommit(userId, log.getLogDate());
         
         return ApiResponse.success();
     }
@@ -314,9 +507,164 @@ public class LogService {
         return ApiResponse.success(data);
     }
 
+    /**
+     * 任务头信息（不含日志），与 {@link #taskTimeline} 配合使用
+     */
+    public ApiResponse<Map<String, Object>> taskHeader(Integer taskId, Integer userId) {
+        List<Task> tasks = taskRepository.findWithCreatorByIds(Collections.singletonList(taskId));
+        if (tasks.isEmpty()) {
+            return ApiResponse.error(404, "任务未找到");
+        }
+        Task task = tasks.get(0);
+        if (!canViewTask(task, userId)) {
+            return ApiResponse.error(403, "无权限查看该任务的日志");
+        }
+
+        List<String> executorNames = new ArrayList<>();
+        for (Object[] row : taskExecutorRelationRepository.findExecutorIdAndNamesByTaskId(taskId)) {
+            executorNames.add((String) row[1]);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("taskId", task.getTaskId());
+        data.put("taskTitle", task.getTaskTitle());
+        data.put("taskContent", task.getTaskContent());
+        data.put("creatorName", task.getCreator().getRealName());
+        data.put("creationTime", task.getCreationTime().format(DATE_TIME_FORMATTER));
+        data.put("endTime", task.getEndTime().format(DATE_TIME_FORMATTER));
+        data.put("taskPriority", task.getPriority());
+        data.put("taskStatus", task.getTaskStatus());
+        data.put("deadline", task.getDeadline());
+        data.put("taskProgress", task.getTaskProgress() != null ? task.getTaskProgress() : 0);
+        data.put("executorNames", executorNames);
+        data.put("isParticipated", true);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 任务时间线分页：按进度升序、游标分页，已被取代的待完成日志在查询中排除，撰写人随查询取回
+     * 第一页开头包含各执行者的“接收任务”记录（临时生成，不存入数据库）
+     * @param cursor 上一页返回的 nextCursor，格式为 "进度_日志ID"，为空表示第一页
+     * @param size 每页条数，最大 {@value #MAX_TIMELINE_PAGE_SIZE}
+     */
+    public ApiResponse<Map<String, Object>> taskTimeline(Integer taskId, Integer userId, String cursor, Integer size) {
+        Optional<Task> taskOptional = taskRepository.findById(taskId);
+        if (taskOptional.isEmpty()) {
+            return ApiResponse.error(404, "任务未找到");
+        }
+        Task task = taskOptional.get();
+        if (!canViewTask(task, userId)) {
+            return ApiResponse.error(403, "无权限查看该任务的日志");
+        }
+
+        int afterProgress = -1;
+        int afterLogId = 0;
+        boolean firstPage = cursor == null || cursor.isBlank();
+        if (!firstPage) {
+            String[] parts = cursor.split("_");
+            try {
+                afterProgress = Integer.parseInt(parts[0]);
+                afterLogId = Integer.parseInt(parts[1]);
+            } catch (RuntimeException e) {
+                return ApiResponse.error(400, "游标格式错误");
+            }
+        }
+        int pageSize = size == null || size <= 0 ? DEFAULT_TIMELINE_PAGE_SIZE : Math.min(size, MAX_TIMELINE_PAGE_SIZE);
+        int maxCompletedProgress = task.getTaskProgress() != null ? task.getTaskProgress() : 0;
+
+        List<LogTimelineItem> logs = logRepository.findTimelinePage(taskId, maxCompletedProgress, afterProgress, afterLogId,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = logs.size() > pageSize;
+        if (hasMore) {
+            logs = logs.subList(0, pageSize);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (firstPage) {
+            for (Object[] row : taskExecutorRelationRepository.findExecutorIdAndNamesByTaskId(taskId)) {
+                items.add(toTimelineItem(new LogTimelineItem(0, "接收任务", "接收到\"" + task.getTaskTitle() + "\"任务", 0, 1,
+                        (Integer) row[0], (String) row[1], task.getCreationTime().toLocalDate(), task.getCreationTime().toLocalTime())));
+            }
+        }
+        for (LogTimelineItem log : logs) {
+            items.add(toTimelineItem(log));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            LogTimelineItem last = logs.get(logs.size() - 1);
+            nextCursor = last.getTaskProgress() + "_" + last.getLogId();
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("logs", items);
+        data.put("nextCursor", nextCursor);
+        data.put("hasMore", hasMore);
+        return ApiResponse.success(data);
+    }
+
+    // 字段与 taskDetails 中的日志条目一致
+    private Map<String, Object> toTimelineItem(LogTimelineItem l) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("logId", l.getLogId());
+        item.put("logTitle", l.getLogTitle());
+        item.put("logContent", l.getLogContent());
+        item.put("taskProgress", l.getTaskProgress() + "%");
+        item.put("logStatus", l.getLogStatus().toString());
+        item.put("userId", l.getUserId());
+        item.put("userName", l.getUserName());
+        item.put("endTime", l.getLogDate() + " " + (l.getEndTime() != null ? l.getEndTime().format(TIME_FORMATTER) : ""));
+        return item;
+    }
+
+    /**
+     * 提交完成日志后的任务完成处理：置为已完成并通知创建者，清除该任务的全部待完成日志
+     * 创建、批量补传与修改日志共用；重复提交或修改完成日志时，已完成的任务不再重复通知，但仍清除其后补传的待完成日志
+     */
+    private void completeTask(Task task, LocalDateTime now) {
+        if (!Byte.valueOf((byte) 2).equals(task.getTaskStatus())) {
+            task.setCompletionTime(now);
+            task.setTaskStatus((byte) 2);
+            taskRepository.save(task);
+            taskDeadlineScheduler.cancelAfterCommit(task.getTaskId());
+
+            // 发送任务完成通知
+            String notificationContent = String.format("您发布的任务‘%s’已完成！", task.getTaskTitle());
+            notificationService.createNotification(Objects.requireNonNull(task.getCreator().getUserId()), notificationContent, "task", Objects.requireNonNull(task.getTaskId()));
+        }
+
+        // 清除该任务的所有待处理日志
+        deletePendingLogs(task.getTaskId());
+    }
+
+    /**
+     * 任务完成后清除其全部待完成日志（含其他执行者的），先为作者写入删除墓碑，并同步清理检索索引与月度汇总缓存
+     */
+    private void deletePendingLogs(Integer taskId) {
+        syncTombstoneRepository.insertPendingLogTombstones(taskId, LocalDateTime.now());
+        logRepository.deleteByTaskTaskIdAndLogStatus(taskId, 0); // 0 for pending
+        searchIndexService.deletePendingLogsAfterCommit(taskId);
+        logSummaryService.invalidateAllAfterCommit();
+    }
+
+    private void recordLogTombstone(Log log) {
+        SyncTombstone tombstone = new SyncTombstone();
+        tombstone.setEntityType(SyncTombstone.ENTITY_LOG);
+        tombstone.setEntityId(log.getLogId());
+        tombstone.setUserId(log.getUser().getUserId());
+        tombstone.setDeletedTime(LocalDateTime.now());
+        syncTombstoneRepository.save(tombstone);
+    }
+
+    private boolean canViewTask(Task task, Integer userId) {
+        return task.getCreator().getUserId().equals(userId)
+                || taskExecutorRelationRepository.existsByTask_TaskIdAndExecutor_UserId(task.getTaskId(), userId);
+    }
+
     public Integer getMaxCompletedTaskProgress(Integer taskId) {
-        Optional<Log> latestCompletedLog = logRepository.findTopByTaskTaskIdAndLogStatusOrderByTaskProgressDesc(taskId, 1); // 1 for completed
-        return latestCompletedLog.map(Log::getTaskProgress).orElse(0);
+        // 读取 Task 上维护的进度列，不再每次扫描日志
+        Integer progress = taskRepository.findTaskProgressById(taskId);
+        return progress != null ? progress : 0;
     }
 
     public ApiResponse<Map<String, Object>> logDetails(Integer logId, Integer userId) {
@@ -0,0 +1,137 @@
+package com.nullworking.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.repository.LogRepository;
+import com.nullworking.util.TransactionCallbacks;
+
+/**
+ * 日志日历月度汇总：按天统计各状态日志数与记录时长，一条 GROUP BY 查询完成
+ * 结果按 (用户, 月份) 缓存，日志写入提交后失效；缓存另设过期时间作为兜底。
+ */
+@Service
+public class LogSummaryService {
+
+    private static final class CachedSummary {
+        final Map<String, Object> data;
+        final long expireAtMillis;
+
+        CachedSummary(Map<String, Object> data, long expireAtMillis) {
+            this.data = data;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Value("${log.summary.cache-ttl-ms:600000}")
+    private long cacheTtlMs;
+
+    @Value("${log.summary.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private final Map<String, CachedSummary> cache = new ConcurrentHashMap<>();
+
+    // 每次失效递增，查询期间发生过失效的结果不写入缓存，避免并发写入时缓存旧数据
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 获取用户某月的按天汇总
+     * @param userId 用户ID
+     * @param month 月份
+     */
+    public ApiResponse<Map<String, Object>> getMonthSummary(Integer userId, YearMonth month) {
+        String key = cacheKey(userId, month);
+        CachedSummary cached = cache.get(key);
+        if (cached != null && cached.expireAtMillis > System.currentTimeMillis()) {
+            return ApiResponse.success(cached.data);
+        }
+
+        long startGeneration = generation.get();
+        Map<String, Object> data = loadMonthSummary(userId, month);
+        if (generation.get() == startGeneration) {
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
+            }
+            cache.put(key, new CachedSummary(data, System.currentTimeMillis() + cacheTtlMs));
+        }
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 日志写入后调用，事务提交后使对应月份的缓存失效
+     * @param userId 日志所属用户ID
+     * @param logDates 受影响的日志日期（更新日期时需同时传入新旧日期）
+     */
+    public void invalidateAfterCommit(Integer userId, LocalDate... logDates) {
+        generation.incrementAndGet();
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            for (LocalDate logDate : logDates) {
+                if (logDate != null) {
+                    cache.remove(cacheKey(userId, YearMonth.from(logDate)));
+                }
+            }
+        });
+    }
+
+    /**
+     * 批量删除涉及多个用户的日志时（如任务完成后清理待完成日志），清空全部缓存
+     */
+    public void invalidateAllAfterCommit() {
+        generation.incrementAndGet();
+        TransactionCallbacks.afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.clear();
+        });
+    }
+
+    private Map<String, Object> loadMonthSummary(Integer userId, YearMonth month) {
+        List<Object[]> rows = logRepository.summarizeByDay(userId, month.atDay(1), month.atEndOfMonth());
+
+        Map<LocalDate, Map<String, Object>> days = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            LocalDate logDate = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+            int logStatus = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+            long minutes = ((Number) row[3]).longValue();
+
+            Map<String, Object> day = days.computeIfAbsent(logDate, d -> {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("date", d.toString());
+                m.put("total", 0L);
+                m.put("pending", 0L);
+                m.put("completed", 0L);
+                m.put("minutes", 0L);
+                return m;
+            });
+            day.put("total", (Long) day.get("total") + count);
+            String statusKey = logStatus == 1 ? "completed" : "pending";
+            day.put(statusKey, (Long) day.get(statusKey) + count);
+            day.put("minutes", (Long) day.get("minutes") + minutes);
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("month", month.toString());
+        data.put("days", new ArrayList<>(days.values()));
+        return data;
+    }
+
+    private String cacheKey(Integer userId, YearMonth month) {
+        return userId + ":" + month;
+    }
+}
@@ -0,0 +1,117 @@
+package com.nullworking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.repository.NotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 已读通知保留策略：定时删除超过保留期的已读通知
+ * 按 (is_read, creation_time) 索引分批删除，每批一个短事务，批次之间暂停以减轻主从复制延迟
+ * 清理在独立线程上执行，批次间的暂停不占用定时任务线程，其他定时任务不受影响。
+ */
+@Service
+public class NotificationRetentionService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${notification.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.retention.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${notification.retention.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    private Counter deletedCounter;
+    private DistributionSummary rowsPerRun;
+    private Timer runTimer;
+
+    private ExecutorService purgeExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        deletedCounter = Counter.builder("notification.retention.deleted").register(meterRegistry);
+        rowsPerRun = DistributionSummary.builder("notification.retention.rows_per_run").register(meterRegistry);
+        runTimer = Timer.builder("notification.retention.duration").register(meterRegistry);
+        purgeExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "notification-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purgeExecutor.shutdownNow();
+    }
+
+    /**
+     * 每天凌晨清理过期的已读通知，单次运行删除的批次数有上限，剩余部分留到下次
+     * 定时任务只负责提交到清理线程，上一次清理尚未结束时跳过
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void purgeReadNotifications() {
+        if (running.compareAndSet(false, true)) {
+            purgeExecutor.execute(() -> {
+                try {
+                    purge();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void purge() {
+        runTimer.record(() -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            long total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<Integer> ids = notificationRepository.findReadIdsBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                notificationRepository.deleteAllByIdInBatch(ids);
+                total += ids.size();
+                deletedCounter.increment(ids.size());
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                try {
+                    Thread.sleep(batchPauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            rowsPerRun.record(total);
+        });
+    }
+}
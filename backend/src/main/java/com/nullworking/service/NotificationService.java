@@ -2,26 +2,30 @@ package com.nullworking.service;
 
 import com.nullworking.common.ApiResponse;
 import com.nullworking.model.Notification;
+import com.nullworking.model.dto.NotificationDraft;
 import com.nullworking.repository.NotificationRepository;
-import com.nullworking.util.JsonWebTokenFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
-import java.io.IOException;
-import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidKeySpecException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Collections;
@@ -35,15 +39,29 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private UserService userService; // 注入 UserService
 
     @Autowired
-    private UserService userService; // 注入 UserService
+    private PushOutboxService pushOutboxService;
+
+    @Autowired
+    private HuaweiPushClient huaweiPushClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RealtimeNotificationService realtimeNotificationService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notification (receiver_id, content, related_type, related_id, is_read, creation_time) VALUES (?, ?, ?, ?, ?, ?)";
 
-    @Value("${huawei.push.appId}")
-    private String huaweiPushAppId;
+    private static final int MAX_PAGE_SIZE = 100;
 
-    private static final String HUAWEI_PUSH_URL = "https://push-api.cloud.huawei.com/v3/%s/messages:send";
+    private static final String PUSH_TITLE = "您收到了新通知"; // 可以根据实际情况调整标题
 
     /**
      * 创建通知
@@ -53,73 +71,94 @@ public class NotificationService {
      * @param relatedId 关联对象的ID
      */
     public void createNotification(Integer receiverId, String content, @Nullable String relatedType, @Nullable Integer relatedId) {
-        Notification notification = new Notification();
-        notification.setReceiverId(receiverId);
-        notification.setContent(content);
-        notification.setRelatedType(relatedType);
-        notification.setRelatedId(relatedId);
-        notification.setIsRead(false); // 默认为未读
-        notification.setCreationTime(LocalDateTime.now());
-        notificationRepository.save(notification);
-
-        // 获取接收者的推送 token
-        String pushToken = userService.getHuaweiPushTokenByUserId(receiverId);
-        if (pushToken != null && !pushToken.trim().isEmpty()) {
-            // 构建华为推送消息体
-            Map<String, Object> messageBody = new HashMap<>();
-            Map<String, Object> notificationPayload = new HashMap<>();
-            notificationPayload.put("category", "WORK");
-            notificationPayload.put("title", "您收到了新通知"); // 可以根据实际情况调整标题
-            notificationPayload.put("body", content);
-            Map<String, Object> clickAction = new HashMap<>();
-            clickAction.put("actionType", 0);
-            notificationPayload.put("clickAction", clickAction);
-            notificationPayload.put("style", 0);
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("notification", notificationPayload);
-            
-            Map<String, Object> target = new HashMap<>();
-            target.put("token", Collections.singletonList(Objects.requireNonNull(pushToken))); // 确保 pushToken 非空
-
-            messageBody.put("payload", payload);
-            messageBody.put("target", target);
-            
-            sendHuaweiPushNotification(messageBody);
+        createNotifications(Collections.singletonList(receiverId), content, relatedType, relatedId);
+    }
+
+    /**
+     * 批量创建同一内容的通知：一次 JDBC 批量插入、一次查询推送 token、一条合并的推送消息
+     * @param receiverIds 接收通知的用户ID集合（重复ID只通知一次）
+     * @param content 通知文本内容
+     * @param relatedType 关联对象类型（log=日志，task=任务，comment=评论等）
+     * @param relatedId 关联对象的ID
+     */
+    public void createNotifications(Collection<Integer> receiverIds, String content, @Nullable String relatedType, @Nullable Integer relatedId) {
+        List<NotificationDraft> drafts = new ArrayList<>();
+        for (Integer receiverId : new LinkedHashSet<>(receiverIds)) {
+            drafts.add(new NotificationDraft(receiverId, content, relatedType, relatedId));
         }
+        createNotifications(drafts);
     }
 
     /**
-     * 发送华为推送通知
-     * @param messageBody 推送的原始消息体，直接作为华为推送API的请求体
+     * 批量创建内容各不相同的通知：一次 JDBC 批量插入、一次查询推送 token，相同内容的推送合并为一条消息
+     * @param drafts 待写入的通知
      */
-    public void sendHuaweiPushNotification(Map<String, Object> messageBody) {
-        try {
-            String jwt = Objects.requireNonNull(JsonWebTokenFactory.createJwt(), "JWT token must not be null");
-            String pushUrl = Objects.requireNonNull(String.format(HUAWEI_PUSH_URL, huaweiPushAppId), "Push URL must not be null");
+    public void createNotifications(List<NotificationDraft> drafts) {
+        List<NotificationDraft> rows = new ArrayList<>(drafts);
+        rows.removeIf(draft -> draft.getReceiverId() == null);
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp creationTime = Timestamp.valueOf(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_NOTIFICATION_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(@NonNull PreparedStatement ps, int i) throws SQLException {
+                        NotificationDraft draft = rows.get(i);
+                        ps.setInt(1, draft.getReceiverId());
+                        ps.setString(2, draft.getContent());
+                        ps.setString(3, draft.getRelatedType());
+                        ps.setObject(4, draft.getRelatedId());
+                        ps.setBoolean(5, false); // 默认为未读
+                        ps.setTimestamp(6, creationTime);
+                    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(jwt);
-            headers.set("Push-Type", "0");
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            HttpEntity<String> request = new HttpEntity<>(objectMapper.writeValueAsString(messageBody), headers);
+        List<Integer> receivers = new ArrayList<>(rows.size());
+        for (NotificationDraft draft : rows) {
+            receivers.add(draft.getReceiverId());
+        }
+        unreadCounterService.incrementAfterCommit(receivers);
 
-            ResponseEntity<String> response = restTemplate.postForEntity(pushUrl, request, String.class);
+        // 在线用户通过 WebSocket 实时收到通知
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < rows.size(); i++) {
+            NotificationDraft draft = rows.get(i);
+            Integer notificationId = i < keys.size() ? ((Number) keys.get(i).values().iterator().next()).intValue() : null;
+            realtimeNotificationService.publishNotification(draft.getReceiverId(),
+                    toNotificationData(notificationId, draft.getContent(), false, now, draft.getRelatedType(), draft.getRelatedId()));
+        }
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("Huawei Push Notification sent successfully: " + response.getBody());
-            } else {
-                System.err.println("Failed to send Huawei Push Notification: " + response.getStatusCode() + " - " + response.getBody());
-                throw new RuntimeException("Failed to send Huawei Push Notification: " + response.getBody());
+        // 获取接收者的推送 token，按内容合并后写入发件箱，由 PushOutboxService 在事务提交后异步投递
+        Map<Integer, String> pushTokens = userService.getHuaweiPushTokensByUserIds(new LinkedHashSet<>(receivers));
+        if (pushTokens.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> tokensByContent = new LinkedHashMap<>();
+        for (NotificationDraft draft : rows) {
+            String token = pushTokens.get(draft.getReceiverId());
+            if (token != null) {
+                tokensByContent.computeIfAbsent(draft.getContent(), k -> new ArrayList<>()).add(token);
             }
-
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException | IOException | NullPointerException e) {
-            System.err.println("Error creating JWT or sending Huawei Push Notification: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Error creating JWT or sending Huawei Push Notification: " + e.getMessage(), e);
         }
+        tokensByContent.forEach((content, tokens) -> pushOutboxService.enqueue(PUSH_TITLE, content, tokens));
+    }
+
+    /**
+     * 同步发送华为推送通知
+     * @param messageBody 推送的原始消息体，直接作为华为推送API的请求体
+     */
+    public void sendHuaweiPushNotification(Map<String, Object> messageBody) {
+        huaweiPushClient.send(messageBody);
     }
 
     /**
@@ -135,21 +174,116 @@ public class NotificationService {
         List<Map<String, Object>> allNotifications = new ArrayList<>();
 
         for (Notification notification : rawNotifications) {
-            Map<String, Object> notificationData = new HashMap<>();
-            notificationData.put("notificationId",notification.getId());
-            notificationData.put("content", notification.getContent());
-            notificationData.put("isRead", notification.getIsRead());
-            notificationData.put("creationTime", notification.getCreationTime());
-
-            if ("task".equalsIgnoreCase(notification.getRelatedType())) {
-                notificationData.put("taskId", notification.getRelatedId());
-            } else if ("log".equalsIgnoreCase(notification.getRelatedType())) {
-                notificationData.put("logId", notification.getRelatedId());
+            allNotifications.add(toNotificationData(notification.getId(), notification.getContent(), notification.getIsRead(),
+                    notification.getCreationTime(), notification.getRelatedType(), notification.getRelatedId()));
+        }
+        return ApiResponse.success(allNotifications);
+    }
+
+    /**
+     * 游标分页获取用户通知，按 (creationTime, id) 倒序
+     * @param userId 用户ID
+     * @param cursor 上一页返回的 nextCursor，为空时取第一页
+     * @param size 每页条数（1-100）
+     * @param unreadOnly 是否只返回未读通知
+     * @return 当前页通知、下一页游标及是否还有更多
+     */
+    public ApiResponse<Map<String, Object>> getNotificationPage(Integer userId, @Nullable String cursor, int size, boolean unreadOnly) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ApiResponse.error(400, "每页条数必须在1-" + MAX_PAGE_SIZE + "之间");
+        }
+        // 多取一条用于判断是否还有下一页
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findInboxFirstPage(userId, unreadOnly, pageRequest);
+        } else {
+            Object[] position = parseCursor(cursor);
+            if (position == null) {
+                return ApiResponse.error(400, "游标格式错误");
             }
+            rows = notificationRepository.findInboxPageBefore(userId, unreadOnly,
+                    (LocalDateTime) position[0], (Integer) position[1], pageRequest);
+        }
 
-            allNotifications.add(notificationData);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
         }
-        return ApiResponse.success(allNotifications);
+        List<Map<String, Object>> notifications = new ArrayList<>(rows.size());
+        for (Notification notification : rows) {
+            notifications.add(toNotificationData(notification.getId(), notification.getContent(), notification.getIsRead(),
+                    notification.getCreationTime(), notification.getRelatedType(), notification.getRelatedId()));
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("notifications", notifications);
+        data.put("hasMore", hasMore);
+        data.put("nextCursor", hasMore ? toCursor(rows.get(rows.size() - 1)) : null);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 批量标记已读，单条 UPDATE 完成
+     * @param userId 用户ID
+     * @param cursor 为空时标记全部；否则标记该游标位置（含）及更早的通知
+     * @return 本次标记为已读的条数
+     */
+    @Transactional
+    public ApiResponse<Map<String, Integer>> markNotificationsAsRead(Integer userId, @Nullable String cursor) {
+        int updated;
+        if (cursor == null || cursor.isBlank()) {
+            updated = notificationRepository.markAllAsRead(userId);
+        } else {
+            Object[] position = parseCursor(cursor);
+            if (position == null) {
+                return ApiResponse.error(400, "游标格式错误");
+            }
+            updated = notificationRepository.markAsReadUpTo(userId, (LocalDateTime) position[0], (Integer) position[1]);
+        }
+        if (updated > 0) {
+            unreadCounterService.decrementAfterCommit(userId, updated);
+            realtimeNotificationService.publishUnreadCount(userId);
+        }
+        Map<String, Integer> data = new HashMap<>();
+        data.put("updated", updated);
+        return ApiResponse.success(data);
+    }
+
+    // 游标格式：creationTime(ISO-8601)_id
+    private String toCursor(Notification notification) {
+        return notification.getCreationTime() + "_" + notification.getId();
+    }
+
+    private Object[] parseCursor(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return new Object[]{
+                    LocalDateTime.parse(cursor.substring(0, separator)),
+                    Integer.valueOf(cursor.substring(separator + 1))
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> toNotificationData(Integer notificationId, String content, Boolean isRead,
+                                                   LocalDateTime creationTime, String relatedType, Integer relatedId) {
+        Map<String, Object> notificationData = new HashMap<>();
+        notificationData.put("notificationId", notificationId);
+        notificationData.put("content", content);
+        notificationData.put("isRead", isRead);
+        notificationData.put("creationTime", creationTime);
+
+        if ("task".equalsIgnoreCase(relatedType)) {
+            notificationData.put("taskId", relatedId);
+        } else if ("log".equalsIgnoreCase(relatedType)) {
+            notificationData.put("logId", relatedId);
+        }
+        return notificationData;
     }
 
     /**
@@ -173,9 +307,10 @@ public class NotificationService {
             return ApiResponse.error(403, "无权限修改该通知");
         }
 
-        // 标记为已读
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        // 条件更新标记为已读，只有实际由未读改为已读时才减少未读数，并发重复标记不会重复扣减
+        int updated = notificationRepository.markOneAsRead(notificationId, userId);
+        unreadCounterService.decrementAfterCommit(userId, updated);
+        realtimeNotificationService.publishUnreadCount(userId);
 
         return ApiResponse.success();
     }
@@ -187,8 +322,18 @@ public class NotificationService {
      */
     public ApiResponse<Map<String, Boolean>> hasUnreadNotifications(Integer userId) {
         Map<String, Boolean> data = new HashMap<>();
-        boolean hasUnread = notificationRepository.existsByReceiverIdAndIsReadFalse(Objects.requireNonNull(userId));
-        data.put("hasUnread", hasUnread);
+        data.put("hasUnread", unreadCounterService.getUnreadCount(Objects.requireNonNull(userId)) > 0);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 查询当前用户的未读通知数（读取内存计数，不访问数据库）
+     * @param userId 用户ID
+     * @return 包含未读数的响应
+     */
+    public ApiResponse<Map<String, Long>> getUnreadCount(Integer userId) {
+        Map<String, Long> data = new HashMap<>();
+        data.put("unreadCount", unreadCounterService.getUnreadCount(Objects.requireNonNull(userId)));
         return ApiResponse.success(data);
     }
 }
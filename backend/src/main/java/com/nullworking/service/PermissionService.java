@@ -9,6 +9,8 @@ import com.nullworking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -33,30 +35,32 @@ public class PermissionService {
      * @return 如果拥有权限返回 true，否则返回 false
      */
     public boolean canAssignTaskToUser(Integer currentUserId, User targetUser) {
-        if (currentUserId == null || targetUser == null || targetUser.getRole() == null || targetUser.getRole().getRoleName() == null) {
-            return false;
-        }
-
-        User currentUser = userRepository.findById(currentUserId).orElse(null);
-        if (currentUser == null) {
-            return false;
-        }
+        return canAssignTaskToUser(getPermissionNames(currentUserId), targetUser);
+    }
 
-        if (currentUser.getRole() == null) {
+    /**
+     * 根据已取出的权限集合判断能否对目标用户分配任务，批量分配时只需查询一次当前用户权限。
+     * @param permissionNames 当前用户角色拥有的权限名称，见 {@link #getPermissionNames(Integer)}
+     * @param targetUser 目标用户（需已加载角色）
+     * @return 如果拥有权限返回 true，否则返回 false
+     */
+    public boolean canAssignTaskToUser(Set<String> permissionNames, User targetUser) {
+        if (targetUser == null || targetUser.getRole() == null || targetUser.getRole().getRoleName() == null) {
             return false;
         }
+        return permissionNames.contains("ASSIGN_TASK_TO_" + targetUser.getRole().getRoleName().toUpperCase());
+    }
 
-        String requiredPermissionName = "ASSIGN_TASK_TO_" + targetUser.getRole().getRoleName().toUpperCase();
-        Optional<Permission> requiredPermission = permissionRepository.findByPermissionName(requiredPermissionName);
-
-        if (requiredPermission.isEmpty()) {
-            return false; // 如果所需权限不存在，则认为无权
+    /**
+     * 查询用户角色拥有的全部权限名称，一次查询完成。
+     * @param userId 用户ID
+     * @return 权限名称集合，用户不存在或没有角色时为空集合
+     */
+    public Set<String> getPermissionNames(Integer userId) {
+        if (userId == null) {
+            return Collections.emptySet();
         }
-
-        // 检查当前用户是否拥有该权限
-        return rolePermissionRelationRepository.findByRole_RoleId(currentUser.getRole().getRoleId())
-                .stream()
-                .anyMatch(relation -> relation.getPermission().getPermissionId().equals(requiredPermission.get().getPermissionId()));
+        return new HashSet<>(rolePermissionRelationRepository.findPermissionNamesByUserId(userId));
     }
 
     /**
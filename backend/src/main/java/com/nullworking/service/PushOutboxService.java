@@ -0,0 +1,201 @@
+package com.nullworking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.model.PushOutbox;
+import com.nullworking.repository.PushOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 推送发件箱
+ * 业务事务内只写入 push_outbox，由独立线程在提交后批量投递，推送接口变慢或报错不会占用业务事务和数据库连接。
+ * 相同标题和正文的消息合并为一次请求（最多 1000 个 token），失败后按指数退避重试。
+ * 当前按单实例部署设计，多实例部署时需改为按行加锁领取任务。
+ */
+@Service
+public class PushOutboxService {
+
+    @Autowired
+    private PushOutboxRepository pushOutboxRepository;
+
+    @Autowired
+    private HuaweiPushClient huaweiPushClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${huawei.push.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${huawei.push.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${huawei.push.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${huawei.push.outbox.retry-base-ms:2000}")
+    private long retryBaseMs;
+
+    @Value("${huawei.push.outbox.retry-max-ms:600000}")
+    private long retryMaxMs;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private ScheduledExecutorService dispatcher;
+
+    private Timer deliveryLatency;
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("push.outbox.pending", pendingCount, AtomicLong::get).register(meterRegistry);
+        deliveryLatency = Timer.builder("push.outbox.delivery_latency")
+                .description("从写入发件箱到推送成功的耗时")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        sentCounter = Counter.builder("push.outbox.messages").tag("result", "sent").register(meterRegistry);
+        retryCounter = Counter.builder("push.outbox.messages").tag("result", "retry").register(meterRegistry);
+        failedCounter = Counter.builder("push.outbox.messages").tag("result", "failed").register(meterRegistry);
+
+        // 使用独立线程投递，避免 HTTP 调用阻塞共享的 @Scheduled 线程
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "push-outbox-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * 写入待投递的推送消息，应在业务事务内调用
+     * @param title 通知标题
+     * @param content 通知正文
+     * @param tokens 接收设备的推送 token
+     */
+    public void enqueue(String title, String content, Collection<String> tokens) {
+        List<String> distinctTokens = new ArrayList<>(new LinkedHashSet<>(tokens));
+        if (distinctTokens.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<PushOutbox> rows = new ArrayList<>();
+        // 每行不超过单次请求的 token 上限，保证一行对应一次投递结果
+        for (int from = 0; from < distinctTokens.size(); from += HuaweiPushClient.MAX_TOKENS_PER_REQUEST) {
+            int to = Math.min(from + HuaweiPushClient.MAX_TOKENS_PER_REQUEST, distinctTokens.size());
+            PushOutbox row = new PushOutbox();
+            row.setTitle(title);
+            row.setContent(content);
+            row.setTokens(String.join("\n", distinctTokens.subList(from, to)));
+            row.setStatus(PushOutbox.STATUS_PENDING);
+            row.setAttempts(0);
+            row.setNextAttemptTime(now);
+            row.setCreationTime(now);
+            rows.add(row);
+        }
+        pushOutboxRepository.saveAll(rows);
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            // 数据库暂时不可用等情况，等待下一轮
+            System.err.println("Push outbox dispatch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取出到期的消息，按标题和正文合并后投递
+     */
+    void dispatch() {
+        List<PushOutbox> due = pushOutboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        Map<String, List<PushOutbox>> groups = new LinkedHashMap<>();
+        for (PushOutbox row : due) {
+            groups.computeIfAbsent(row.getTitle() + "\n" + row.getContent(), k -> new ArrayList<>()).add(row);
+        }
+
+        for (List<PushOutbox> group : groups.values()) {
+            List<PushOutbox> batch = new ArrayList<>();
+            Set<String> batchTokens = new LinkedHashSet<>();
+            for (PushOutbox row : group) {
+                List<String> rowTokens = Arrays.asList(row.getTokens().split("\n"));
+                if (!batch.isEmpty() && batchTokens.size() + rowTokens.size() > HuaweiPushClient.MAX_TOKENS_PER_REQUEST) {
+                    deliver(batch, batchTokens);
+                    batch = new ArrayList<>();
+                    batchTokens = new LinkedHashSet<>();
+                }
+                batch.add(row);
+                batchTokens.addAll(rowTokens);
+            }
+            deliver(batch, batchTokens);
+        }
+
+        pendingCount.set(pushOutboxRepository.countByStatus(PushOutbox.STATUS_PENDING));
+    }
+
+    private void deliver(List<PushOutbox> batch, Set<String> tokens) {
+        PushOutbox first = batch.get(0);
+        try {
+            huaweiPushClient.send(huaweiPushClient.buildMessage(first.getTitle(), first.getContent(), tokens));
+        } catch (RuntimeException e) {
+            scheduleRetry(batch, e.getMessage());
+            return;
+        }
+        pushOutboxRepository.deleteAllInBatch(batch);
+        LocalDateTime now = LocalDateTime.now();
+        for (PushOutbox row : batch) {
+            deliveryLatency.record(Duration.between(row.getCreationTime(), now));
+        }
+        sentCounter.increment(batch.size());
+    }
+
+    private void scheduleRetry(List<PushOutbox> batch, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        for (PushOutbox row : batch) {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setLastError(lastError);
+            if (attempts >= maxAttempts) {
+                row.setStatus(PushOutbox.STATUS_FAILED);
+                failedCounter.increment();
+            } else {
+                long delayMs = Math.min(retryMaxMs, retryBaseMs << Math.min(attempts - 1, 20));
+                row.setNextAttemptTime(now.plus(Duration.ofMillis(delayMs)));
+                retryCounter.increment();
+            }
+        }
+        pushOutboxRepository.saveAll(batch);
+    }
+}
@@ -0,0 +1,80 @@
+package com.nullworking.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.util.TransactionCallbacks;
+
+/**
+ * 通过 WebSocket 向在线用户实时推送新通知与未读数变化
+ * 消息在事务提交后发送，离线用户直接跳过
+ */
+@Service
+public class RealtimeNotificationService {
+
+    public static final String NOTIFICATION_QUEUE = "/queue/notifications";
+
+    public static final String UNREAD_QUEUE = "/queue/unread";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    /**
+     * 推送一条新通知，并同步最新未读数
+     * @param receiverId 接收者ID
+     * @param notificationData 通知内容，字段与通知列表接口一致
+     */
+    public void publishNotification(Integer receiverId, Map<String, Object> notificationData) {
+        afterCommitSafely(() -> {
+            if (!isOnline(receiverId)) {
+                return;
+            }
+            messagingTemplate.convertAndSendToUser(String.valueOf(receiverId), NOTIFICATION_QUEUE, notificationData);
+            sendUnreadCount(receiverId);
+        });
+    }
+
+    /**
+     * 未读数发生变化（如标记已读）时推送最新未读数
+     * @param userId 用户ID
+     */
+    public void publishUnreadCount(Integer userId) {
+        afterCommitSafely(() -> {
+            if (isOnline(userId)) {
+                sendUnreadCount(userId);
+            }
+        });
+    }
+
+    private void sendUnreadCount(Integer userId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("unreadCount", unreadCounterService.getUnreadCount(userId));
+        messagingTemplate.convertAndSendToUser(String.valueOf(userId), UNREAD_QUEUE, data);
+    }
+
+    private boolean isOnline(Integer userId) {
+        return userId != null && simpUserRegistry.getUser(String.valueOf(userId)) != null;
+    }
+
+    private void afterCommitSafely(Runnable action) {
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // 实时推送失败不影响业务，客户端重连后会重新拉取
+                System.err.println("Failed to publish realtime notification: " + e.getMessage());
+            }
+        });
+    }
+}
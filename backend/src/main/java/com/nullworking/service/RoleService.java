@@ -40,6 +40,9 @@ public class RoleService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     /**
      * 列出所有角色
      * @return 包含角色列表的响应
@@ -257,6 +260,8 @@ public class RoleService {
                 }
             }
 
+            // 角色权限变更影响该角色下所有用户，直接清空认证缓存
+            userDetailsCache.invalidateAll();
             return ApiResponse.success("角色更新成功");
         } catch (Exception e) {
             return ApiResponse.error(500, "更新角色失败: " + e.getMessage());
@@ -318,6 +323,7 @@ public class RoleService {
 
             // 删除角色
             roleRepository.delete(role);
+            userDetailsCache.invalidateAll();
             return ApiResponse.success("角色删除成功");
         } catch (Exception e) {
             return ApiResponse.error(500, "删除角色失败: " + e.getMessage());
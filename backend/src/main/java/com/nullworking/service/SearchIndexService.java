@@ -0,0 +1,447 @@
+package com.nullworking.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.model.Comment;
+import com.nullworking.model.Log;
+import com.nullworking.model.Task;
+import com.nullworking.repository.CommentRepository;
+import com.nullworking.repository.LogRepository;
+import com.nullworking.repository.TaskExecutorRelationRepository;
+import com.nullworking.repository.TaskRepository;
+import com.nullworking.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 任务、日志、评论的嵌入式全文检索（Lucene，本地磁盘索引，CJK 二元分词）
+ * 业务写入在事务提交后交给单个索引线程增量更新，查询按任务成员关系与日志作者过滤；
+ * 索引可随时通过全量重建恢复。索引目录带写锁，同一目录只能由一个实例打开。
+ */
+@Service
+public class SearchIndexService {
+
+    public static final String TYPE_TASK = "task";
+
+    public static final String TYPE_LOG = "log";
+
+    public static final String TYPE_COMMENT = "comment";
+
+    public static final String REINDEX_PERMISSION = "SEARCH_REINDEX";
+
+    private static final String FIELD_UID = "uid";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TASK_ID = "taskId";
+    private static final String FIELD_LOG_ID = "logId";
+    private static final String FIELD_OWNER_ID = "ownerId";
+    private static final String FIELD_LOG_STATUS = "logStatus";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_SUMMARY = "summary";
+
+    private static final int SUMMARY_LENGTH = 100;
+
+    private static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TaskExecutorRelationRepository taskExecutorRelationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${search.index.dir:./data/search-index}")
+    private String indexDir;
+
+    @Value("${search.index.reindex-batch-size:500}")
+    private int reindexBatchSize;
+
+    @Value("${search.index.reindex-on-startup:false}")
+    private boolean reindexOnStartup;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+
+    private final AtomicBoolean reindexing = new AtomicBoolean(false);
+
+    private FSDirectory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private ExecutorService indexExecutor;
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        indexWriter = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(indexWriter, null);
+        // 所有写操作串行执行，全量重建与增量更新互不交错
+        indexExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        queryTimer = Timer.builder("search.query.duration").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexExecutor.shutdown();
+        try {
+            indexExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            searcherManager.close();
+            indexWriter.close();
+            directory.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close search index: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 首次启动（索引为空）或显式配置时执行一次全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartupIfNeeded() {
+        if (reindexOnStartup || indexWriter.getDocStats().numDocs == 0) {
+            reindexAll();
+        }
+    }
+
+    /**
+     * 定时提交索引，增量写入之间只做近实时刷新，不逐条落盘
+     */
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:5000}")
+    public void commitPendingChanges() {
+        submit(() -> {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        });
+    }
+
+    public void indexTaskAfterCommit(Task task) {
+        Document document = taskDocument(task.getTaskId(), task.getCreator().getUserId(), task.getTaskTitle(), task.getTaskContent());
+        afterCommit(() -> indexWriter.updateDocument(uidTerm(TYPE_TASK, task.getTaskId()), document));
+    }
+
+    public void indexLogAfterCommit(Log log) {
+        Document document = logDocument(log.getLogId(), log.getTask().getTaskId(), log.getUser().getUserId(),
+                log.getLogStatus(), log.getLogTitle(), log.getLogContent());
+        afterCommit(() -> indexWriter.updateDocument(uidTerm(TYPE_LOG, log.getLogId()), document));
+    }
+
+    /**
+     * @param comment 评论
+     * @param log 评论所属日志，用于确定可见范围
+     */
+    public void indexCommentAfterCommit(Comment comment, Log log) {
+        Document document = commentDocument(comment.getId(), log.getLogId(), log.getTask().getTaskId(),
+                log.getUser().getUserId(), comment.getContent());
+        afterCommit(() -> indexWriter.updateDocument(uidTerm(TYPE_COMMENT, comment.getId()), document));
+    }
+
+    public void deleteCommentAfterCommit(Integer commentId) {
+        afterCommit(() -> indexWriter.deleteDocuments(uidTerm(TYPE_COMMENT, commentId)));
+    }
+
+    /**
+     * 删除日志及其下的评论
+     */
+    public void deleteLogAfterCommit(Integer logId) {
+        afterCommit(() -> {
+            indexWriter.deleteDocuments(uidTerm(TYPE_LOG, logId));
+            indexWriter.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new TermQuery(new Term(FIELD_TYPE, TYPE_COMMENT)), BooleanClause.Occur.FILTER)
+                    .add(new TermQuery(new Term(FIELD_LOG_ID, String.valueOf(logId))), BooleanClause.Occur.FILTER)
+                    .build());
+        });
+    }
+
+    /**
+     * 任务完成时待完成日志会被批量删除，这里同步清理索引
+     */
+    public void deletePendingLogsAfterCommit(Integer taskId) {
+        afterCommit(() -> indexWriter.deleteDocuments(new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(FIELD_TYPE, TYPE_LOG)), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(FIELD_TASK_ID, String.valueOf(taskId))), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(FIELD_LOG_STATUS, "0")), BooleanClause.Occur.FILTER)
+                .build()));
+    }
+
+    /**
+     * 全文检索，只返回用户可见的结果：所在任务由其创建或参与，或日志（及其评论）由其撰写
+     * @param userId 当前用户ID
+     * @param keyword 关键词
+     * @param type 限定类型 task/log/comment，为空表示全部
+     * @param size 返回条数，最大 {@value #MAX_RESULTS}
+     */
+    public ApiResponse<Map<String, Object>> search(Integer userId, String keyword, String type, Integer size) {
+        if (keyword == null || keyword.isBlank()) {
+            return ApiResponse.error(400, "关键词不能为空");
+        }
+        if (type != null && !TYPE_TASK.equals(type) && !TYPE_LOG.equals(type) && !TYPE_COMMENT.equals(type)) {
+            return ApiResponse.error(400, "类型只能为task、log或comment");
+        }
+        int limit = size == null || size <= 0 ? 20 : Math.min(size, MAX_RESULTS);
+
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        Query titleQuery = queryBuilder.createBooleanQuery(FIELD_TITLE, keyword.trim(), BooleanClause.Occur.MUST);
+        Query contentQuery = queryBuilder.createBooleanQuery(FIELD_CONTENT, keyword.trim(), BooleanClause.Occur.MUST);
+        Map<String, Object> data = new HashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>();
+        data.put("results", results);
+        if (titleQuery == null && contentQuery == null) {
+            return ApiResponse.success(data);
+        }
+
+        BooleanQuery.Builder textQuery = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1);
+        if (titleQuery != null) {
+            textQuery.add(new BoostQuery(titleQuery, 2.0f), BooleanClause.Occur.SHOULD);
+        }
+        if (contentQuery != null) {
+            textQuery.add(contentQuery, BooleanClause.Occur.SHOULD);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(textQuery.build(), BooleanClause.Occur.MUST)
+                .add(visibilityFilter(userId), BooleanClause.Occur.FILTER);
+        if (type != null) {
+            query.add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = queryTimer.recordCallable(() -> searcher.search(query.build(), limit));
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("type", document.get(FIELD_TYPE));
+                    item.put("id", Integer.valueOf(document.get(FIELD_ID)));
+                    item.put("taskId", Integer.valueOf(document.get(FIELD_TASK_ID)));
+                    if (document.get(FIELD_LOG_ID) != null) {
+                        item.put("logId", Integer.valueOf(document.get(FIELD_LOG_ID)));
+                    }
+                    item.put("title", document.get(FIELD_TITLE));
+                    item.put("summary", document.get(FIELD_SUMMARY));
+                    item.put("score", scoreDoc.score);
+                    results.add(item);
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (Exception e) {
+            return ApiResponse.error(500, "检索失败: " + e.getMessage());
+        }
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 异步全量重建索引
+     * @return 已有重建在进行中时返回 false
+     */
+    public boolean reindexAll() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        submit(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                indexWriter.deleteAll();
+                int total = reindexTasks() + reindexLogs() + reindexComments();
+                indexWriter.commit();
+                searcherManager.maybeRefresh();
+                System.out.println("Search index rebuilt: " + total + " documents in " + (System.currentTimeMillis() - start) + " ms");
+            } finally {
+                reindexing.set(false);
+            }
+        });
+        return true;
+    }
+
+    private int reindexTasks() throws IOException {
+        int count = 0;
+        int afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = taskRepository.findSearchRowsAfter(afterId, PageRequest.of(0, reindexBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Integer) row[0];
+                indexWriter.addDocument(taskDocument(afterId, (Integer) row[1], (String) row[2], (String) row[3]));
+            }
+            count += rows.size();
+        } while (rows.size() == reindexBatchSize);
+        return count;
+    }
+
+    private int reindexLogs() throws IOException {
+        int count = 0;
+        int afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = logRepository.findSearchRowsAfter(afterId, PageRequest.of(0, reindexBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Integer) row[0];
+                indexWriter.addDocument(logDocument(afterId, (Integer) row[1], (Integer) row[2], (Integer) row[3], (String) row[4], (String) row[5]));
+            }
+            count += rows.size();
+        } while (rows.size() == reindexBatchSize);
+        return count;
+    }
+
+    private int reindexComments() throws IOException {
+        int count = 0;
+        int afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = commentRepository.findSearchRowsAfter(afterId, PageRequest.of(0, reindexBatchSize));
+            for (Object[] row : rows) {
+                afterId = (Integer) row[0];
+                indexWriter.addDocument(commentDocument(afterId, (Integer) row[1], (Integer) row[2], (Integer) row[3], (String) row[4]));
+            }
+            count += rows.size();
+        } while (rows.size() == reindexBatchSize);
+        return count;
+    }
+
+    // 可见范围：任务创建者与执行者可见任务下的全部内容，日志作者始终可见自己的日志及其评论
+    private Query visibilityFilter(Integer userId) {
+        Set<BytesRef> taskIds = new HashSet<>();
+        for (Integer taskId : taskRepository.findTaskIdsByCreatorId(userId)) {
+            taskIds.add(new BytesRef(String.valueOf(taskId)));
+        }
+        for (Integer taskId : taskExecutorRelationRepository.findAllTaskIdsByExecutor(userId)) {
+            taskIds.add(new BytesRef(String.valueOf(taskId)));
+        }
+        BooleanQuery.Builder filter = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1)
+                .add(new TermQuery(new Term(FIELD_OWNER_ID, String.valueOf(userId))), BooleanClause.Occur.SHOULD);
+        if (!taskIds.isEmpty()) {
+            filter.add(new TermInSetQuery(FIELD_TASK_ID, taskIds), BooleanClause.Occur.SHOULD);
+        }
+        return filter.build();
+    }
+
+    private Document taskDocument(Integer taskId, Integer creatorId, String title, String content) {
+        return baseDocument(TYPE_TASK, taskId, taskId, creatorId, title, content);
+    }
+
+    private Document logDocument(Integer logId, Integer taskId, Integer authorId, Integer logStatus, String title, String content) {
+        Document document = baseDocument(TYPE_LOG, logId, taskId, authorId, title, content);
+        document.add(new StringField(FIELD_LOG_ID, String.valueOf(logId), Field.Store.YES));
+        document.add(new StringField(FIELD_LOG_STATUS, String.valueOf(logStatus), Field.Store.NO));
+        return document;
+    }
+
+    private Document commentDocument(Integer commentId, Integer logId, Integer taskId, Integer logAuthorId, String content) {
+        Document document = baseDocument(TYPE_COMMENT, commentId, taskId, logAuthorId, null, content);
+        document.add(new StringField(FIELD_LOG_ID, String.valueOf(logId), Field.Store.YES));
+        return document;
+    }
+
+    private Document baseDocument(String type, Integer id, Integer taskId, Integer ownerId, String title, String content) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_UID, type + ":" + id, Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, type, Field.Store.YES));
+        document.add(new StringField(FIELD_ID, String.valueOf(id), Field.Store.YES));
+        document.add(new StringField(FIELD_TASK_ID, String.valueOf(taskId), Field.Store.YES));
+        document.add(new StringField(FIELD_OWNER_ID, String.valueOf(ownerId), Field.Store.NO));
+        if (title != null) {
+            document.add(new TextField(FIELD_TITLE, title, Field.Store.YES));
+        }
+        if (content != null) {
+            document.add(new TextField(FIELD_CONTENT, content, Field.Store.NO));
+            document.add(new StoredField(FIELD_SUMMARY, content.length() > SUMMARY_LENGTH ? content.substring(0, SUMMARY_LENGTH) : content));
+        }
+        return document;
+    }
+
+    private Term uidTerm(String type, Integer id) {
+        return new Term(FIELD_UID, type + ":" + id);
+    }
+
+    private interface IndexOperation {
+        void run() throws IOException;
+    }
+
+    private void afterCommit(IndexOperation operation) {
+        TransactionCallbacks.afterCommit(() -> submit(() -> {
+            operation.run();
+            searcherManager.maybeRefresh();
+        }));
+    }
+
+    private void submit(IndexOperation operation) {
+        indexExecutor.execute(() -> {
+            try {
+                operation.run();
+            } catch (IOException | RuntimeException e) {
+                // 索引失败不影响业务数据，可通过全量重建恢复
+                System.err.println("Search index operation failed: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,192 @@
+package com.nullworking.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.model.SyncTombstone;
+import com.nullworking.model.Task;
+import com.nullworking.model.dto.LogSyncItem;
+import com.nullworking.repository.LogRepository;
+import com.nullworking.repository.SyncTombstoneRepository;
+import com.nullworking.repository.TaskRepository;
+
+/**
+ * 移动端增量同步：返回游标之后变更的日志、任务与日志删除墓碑，以及新的游标
+ * 游标由日志、任务、墓碑三段 (时间, ID) 组成，各自独立推进。只返回早于“当前时间减提交延迟”的变更，
+ * 避免尚未提交的事务以较早的时间戳落在游标之前而被漏掉。任务修改时间由数据库生成，要求数据库与应用时区、时钟一致。
+ */
+@Service
+public class SyncService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Value("${sync.page-size:200}")
+    private int pageSize;
+
+    @Value("${sync.commit-lag-ms:5000}")
+    private long commitLagMs;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Value("${sync.tombstone-purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    /**
+     * 获取游标之后的变更
+     * @param userId 当前用户ID
+     * @param cursor 上次返回的 cursor，为空表示首次同步
+     * @return logs 变更日志，deletedLogIds 已删除日志ID，tasks 变更任务，cursor 新游标，hasMore 是否还有未取完的变更，
+     *         fullResync 为 true 时客户端应清空本地数据（游标过旧，墓碑已被清理）
+     */
+    public ApiResponse<Map<String, Object>> getChanges(Integer userId, String cursor) {
+        LocalDateTime logTime = EPOCH;
+        int logId = 0;
+        LocalDateTime taskTime = EPOCH;
+        int taskId = 0;
+        LocalDateTime tombstoneTime = EPOCH;
+        long tombstoneId = 0;
+        boolean fullResync = cursor == null || cursor.isBlank();
+        if (!fullResync) {
+            try {
+                String[] parts = cursor.split("~");
+                String[] log = parts[0].split("_");
+                String[] task = parts[1].split("_");
+                String[] tombstone = parts[2].split("_");
+                logTime = LocalDateTime.parse(log[0]);
+                logId = Integer.parseInt(log[1]);
+                taskTime = LocalDateTime.parse(task[0]);
+                taskId = Integer.parseInt(task[1]);
+                tombstoneTime = LocalDateTime.parse(tombstone[0]);
+                tombstoneId = Long.parseLong(tombstone[1]);
+            } catch (RuntimeException e) {
+                return ApiResponse.error(400, "游标格式错误");
+            }
+            // 墓碑已超出保留期，无法得知期间的删除，只能全量重新同步
+            if (tombstoneTime.isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))) {
+                fullResync = true;
+                logTime = EPOCH;
+                logId = 0;
+                taskTime = EPOCH;
+                taskId = 0;
+                tombstoneTime = EPOCH;
+                tombstoneId = 0;
+            }
+        }
+
+        LocalDateTime upperBound = LocalDateTime.now().minusNanos(commitLagMs * 1_000_000).truncatedTo(ChronoUnit.MICROS);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        boolean hasMore = false;
+
+        List<LogSyncItem> logs = logRepository.findSyncChanges(userId, logTime, logId, upperBound, page);
+        if (logs.size() > pageSize) {
+            hasMore = true;
+            logs = logs.subList(0, pageSize);
+            LogSyncItem last = logs.get(logs.size() - 1);
+            logTime = last.getUpdateTime();
+            logId = last.getLogId();
+        } else {
+            logTime = upperBound;
+            logId = 0;
+        }
+
+        List<Task> tasks = taskRepository.findSyncChanges(userId, taskTime, taskId, upperBound, page);
+        if (tasks.size() > pageSize) {
+            hasMore = true;
+            tasks = tasks.subList(0, pageSize);
+            Task last = tasks.get(tasks.size() - 1);
+            taskTime = last.getUpdateTime();
+            taskId = last.getTaskId();
+        } else {
+            taskTime = upperBound;
+            taskId = 0;
+        }
+
+        List<Integer> deletedLogIds = new ArrayList<>();
+        if (!fullResync) {
+            List<SyncTombstone> tombstones = syncTombstoneRepository.findChanges(userId, tombstoneTime, tombstoneId, upperBound, page);
+            if (tombstones.size() > pageSize) {
+                hasMore = true;
+                tombstones = tombstones.subList(0, pageSize);
+                SyncTombstone last = tombstones.get(tombstones.size() - 1);
+                tombstoneTime = last.getDeletedTime();
+                tombstoneId = last.getId();
+            } else {
+                tombstoneTime = upperBound;
+                tombstoneId = 0;
+            }
+            for (SyncTombstone tombstone : tombstones) {
+                deletedLogIds.add(tombstone.getEntityId());
+            }
+        } else {
+            // 全量同步时客户端本地为空，不需要墓碑
+            tombstoneTime = upperBound;
+            tombstoneId = 0;
+        }
+
+        List<Map<String, Object>> logItems = new ArrayList<>(logs.size());
+        for (LogSyncItem l : logs) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("logId", l.getLogId());
+            item.put("taskId", l.getTaskId());
+            item.put("taskTitle", l.getTaskTitle());
+            item.put("logTitle", l.getLogTitle());
+            item.put("logContent", l.getLogContent());
+            item.put("logDate", l.getLogDate());
+            item.put("logStatus", l.getLogStatus());
+            item.put("startTime", l.getStartTime() != null ? l.getStartTime().format(TIME_FORMATTER) : null);
+            item.put("endTime", l.getEndTime() != null ? l.getEndTime().format(TIME_FORMATTER) : null);
+            logItems.add(item);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("logs", logItems);
+        data.put("deletedLogIds", deletedLogIds);
+        data.put("tasks", taskService.toDtosWithExecutors(tasks));
+        data.put("cursor", logTime + "_" + logId + "~" + taskTime + "_" + taskId + "~" + tombstoneTime + "_" + tombstoneId);
+        data.put("hasMore", hasMore);
+        data.put("fullResync", fullResync);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 每天清理超过保留期的墓碑，按批删除
+     */
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 45 3 * * *}")
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        List<Long> ids;
+        do {
+            ids = syncTombstoneRepository.findIdsBefore(cutoff, PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty()) {
+                syncTombstoneRepository.deleteAllByIdInBatch(ids);
+            }
+        } while (ids.size() == purgeBatchSize);
+    }
+}
@@ -0,0 +1,332 @@
+package com.nullworking.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nullworking.model.Task;
+import com.nullworking.model.dto.NotificationDraft;
+import com.nullworking.repository.TaskExecutorRelationRepository;
+import com.nullworking.repository.TaskRepository;
+import com.nullworking.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 任务截止时间引擎
+ * 进行中任务的截止提醒与延期转换以事件形式放入 DelayQueue，由专用线程在到期时刻触发；
+ * 发布、更新、关闭、完成任务时同步维护，低频对账扫描作为兜底（启动时、漏登记、多实例部署）。
+ * 事件触发时会重新读取任务并校验状态与截止时间，过期事件直接丢弃。
+ */
+@Service
+public class TaskDeadlineScheduler {
+
+    private static final byte STATUS_IN_PROGRESS = 0;
+
+    private static final byte STATUS_OVERDUE = 1;
+
+    // offsetMinutes 为 0 表示到达截止时间，转为延期
+    private static final class DeadlineEvent implements Delayed {
+        final Integer taskId;
+        final LocalDateTime deadline;
+        final int offsetMinutes;
+        final long fireAtMillis;
+
+        DeadlineEvent(Integer taskId, LocalDateTime deadline, int offsetMinutes, long fireAtMillis) {
+            this.taskId = taskId;
+            this.deadline = deadline;
+            this.offsetMinutes = offsetMinutes;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public long getDelay(@NonNull TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(@NonNull Delayed other) {
+            return Long.compare(fireAtMillis, ((DeadlineEvent) other).fireAtMillis);
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExecutorRelationRepository taskExecutorRelationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 多个提醒时间点（距截止时间的分钟数），逗号分隔
+    @Value("${task.deadline.reminder-offsets-minutes:60}")
+    private String reminderOffsetsConfig;
+
+    // 只把该时间范围内到期的任务放入内存队列，更远的由对账扫描逐步载入
+    @Value("${task.deadline.horizon-hours:48}")
+    private long horizonHours;
+
+    private final DelayQueue<DeadlineEvent> queue = new DelayQueue<>();
+
+    // 已登记的任务及其截止时间，用于识别过期事件
+    private final Map<Integer, LocalDateTime> scheduledDeadlines = new ConcurrentHashMap<>();
+
+    private List<Integer> reminderOffsets;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread worker;
+
+    private Counter reminderCounter;
+    private Counter overdueCounter;
+
+    @PostConstruct
+    public void init() {
+        List<Integer> offsets = new ArrayList<>();
+        for (String part : reminderOffsetsConfig.split(",")) {
+            if (!part.isBlank()) {
+                int offset = Integer.parseInt(part.trim());
+                if (offset > 0 && !offsets.contains(offset)) {
+                    offsets.add(offset);
+                }
+            }
+        }
+        // 从早到晚：提前量大的提醒先触发
+        offsets.sort(Comparator.reverseOrder());
+        reminderOffsets = offsets;
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("task.deadline.queue_size", queue, DelayQueue::size).register(meterRegistry);
+        reminderCounter = Counter.builder("task.deadline.fired").tag("type", "reminder").register(meterRegistry);
+        overdueCounter = Counter.builder("task.deadline.fired").tag("type", "overdue").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker = new Thread(this::runWorker, "task-deadline-worker");
+        worker.setDaemon(true);
+        worker.start();
+        reconcile();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 在事务提交后登记（或重新登记）任务的截止事件；非进行中的任务会被移除
+     * @param task 已保存的任务
+     */
+    public void scheduleAfterCommit(Task task) {
+        Integer taskId = task.getTaskId();
+        Byte status = task.getTaskStatus();
+        LocalDateTime deadline = task.getDeadline();
+        Integer remindedOffset = task.getRemindedOffsetMinutes();
+        TransactionCallbacks.afterCommit(() -> schedule(taskId, status, deadline, remindedOffset));
+    }
+
+    /**
+     * 任务关闭或完成后调用，不再触发提醒与延期
+     * @param taskId 任务ID
+     */
+    public void cancelAfterCommit(Integer taskId) {
+        TransactionCallbacks.afterCommit(() -> scheduledDeadlines.remove(taskId));
+    }
+
+    /**
+     * 对账扫描：把已过截止时间但仍为进行中的任务批量转为延期，并把即将到期的任务载入内存队列
+     */
+    @Scheduled(fixedDelayString = "${task.deadline.reconcile-ms:600000}", initialDelayString = "${task.deadline.reconcile-ms:600000}")
+    public void reconcile() {
+        try {
+            transitionOverdue(null);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to mark overdue tasks: " + e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = taskRepository.findByTaskStatusAndDeadlineBefore(STATUS_IN_PROGRESS, now.plusHours(horizonHours));
+        for (Task task : tasks) {
+            if (task.getDeadline().isAfter(now)) {
+                schedule(task.getTaskId(), task.getTaskStatus(), task.getDeadline(), task.getRemindedOffsetMinutes());
+            }
+        }
+    }
+
+    private void schedule(Integer taskId, Byte status, LocalDateTime deadline, Integer remindedOffset) {
+        if (taskId == null) {
+            return;
+        }
+        if (deadline == null || !Byte.valueOf(STATUS_IN_PROGRESS).equals(status)) {
+            scheduledDeadlines.remove(taskId);
+            return;
+        }
+        LocalDateTime normalized = deadline.truncatedTo(ChronoUnit.MILLIS);
+        long now = System.currentTimeMillis();
+        long deadlineMillis = normalized.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (deadlineMillis - now > TimeUnit.HOURS.toMillis(horizonHours)) {
+            scheduledDeadlines.remove(taskId);
+            return;
+        }
+        if (normalized.equals(scheduledDeadlines.put(taskId, normalized))) {
+            return; // 已按相同截止时间登记
+        }
+
+        // 已经错过的提醒只补发最临近截止时间的一条
+        Integer missedOffset = null;
+        for (Integer offset : reminderOffsets) {
+            if (remindedOffset != null && offset >= remindedOffset) {
+                continue;
+            }
+            long fireAt = deadlineMillis - TimeUnit.MINUTES.toMillis(offset);
+            if (fireAt <= now) {
+                if (deadlineMillis > now) {
+                    missedOffset = offset;
+                }
+                continue;
+            }
+            queue.add(new DeadlineEvent(taskId, normalized, offset, fireAt));
+        }
+        if (missedOffset != null) {
+            queue.add(new DeadlineEvent(taskId, normalized, missedOffset, now));
+        }
+        queue.add(new DeadlineEvent(taskId, normalized, 0, deadlineMillis));
+    }
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            DeadlineEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!event.deadline.equals(scheduledDeadlines.get(event.taskId))) {
+                continue; // 任务已关闭、完成或截止时间已变更
+            }
+            try {
+                if (event.offsetMinutes == 0) {
+                    scheduledDeadlines.remove(event.taskId, event.deadline);
+                    transitionOverdue(Collections.singletonList(event.taskId));
+                } else {
+                    handleReminder(event);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Failed to process deadline event for task " + event.taskId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleReminder(DeadlineEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // 条件更新抢占提醒：任务已完成、截止时间已变更或已发送过同一时间点及更临近的提醒时不更新，也不发送
+            int updated = taskRepository.markReminded(event.taskId, STATUS_IN_PROGRESS, event.deadline,
+                    event.deadline.plus(1, ChronoUnit.MILLIS), event.offsetMinutes);
+            if (updated != 1) {
+                return;
+            }
+
+            List<Object[]> rows = taskRepository.findTitleAndCreatorByIds(Collections.singletonList(event.taskId));
+            List<Integer> executorIds = taskExecutorRelationRepository.findAllExecutorIdsByTaskId(event.taskId);
+            String notificationContent = String.format("您参与的任务\"%s\"距离截止时间不足%s，请尽快处理。",
+                    rows.get(0)[1], formatOffset(event.offsetMinutes));
+            notificationService.createNotifications(executorIds, notificationContent, "task", event.taskId);
+            reminderCounter.increment();
+        });
+    }
+
+    /**
+     * 将已过截止时间的进行中任务转为延期，并通知创建者和执行者
+     * 一个事务内完成：锁定候选任务、一条批量 UPDATE、一次查询任务信息、一次查询执行者、一次批量写入通知
+     * @param taskIds 限定的任务ID，为 null 时处理全部
+     */
+    private void transitionOverdue(Collection<Integer> taskIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Integer> overdueIds = taskIds == null
+                    ? taskRepository.lockOverdueTaskIds(now)
+                    : taskRepository.lockOverdueTaskIdsIn(taskIds, now);
+            if (overdueIds.isEmpty()) {
+                return;
+            }
+            taskRepository.updateStatusByIds(overdueIds, STATUS_OVERDUE);
+
+            Map<Integer, List<Integer>> executorsByTask = new HashMap<>();
+            for (Object[] row : taskExecutorRelationRepository.findExecutorIdsByTaskIds(overdueIds)) {
+                executorsByTask.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add((Integer) row[1]);
+            }
+
+            List<NotificationDraft> drafts = new ArrayList<>();
+            for (Object[] row : taskRepository.findTitleAndCreatorByIds(overdueIds)) {
+                Integer taskId = (Integer) row[0];
+                String taskTitle = (String) row[1];
+                Integer creatorId = (Integer) row[2];
+
+                // 通知创建者
+                drafts.add(new NotificationDraft(creatorId,
+                        String.format("您发布的任务\"%s\"已超过截止时间，已转为延期状态。", taskTitle), "task", taskId));
+
+                // 通知所有执行者，避免重复通知创建者（如果创建者也是执行者）
+                Set<Integer> executorIds = new LinkedHashSet<>(executorsByTask.getOrDefault(taskId, Collections.emptyList()));
+                executorIds.remove(creatorId);
+                String executorMsg = String.format("您参与的任务\"%s\"已超过截止时间，已转为延期状态。", taskTitle);
+                for (Integer executorId : executorIds) {
+                    drafts.add(new NotificationDraft(executorId, executorMsg, "task", taskId));
+                }
+            }
+            notificationService.createNotifications(drafts);
+            overdueCounter.increment(overdueIds.size());
+        });
+    }
+
+    private static String formatOffset(int offsetMinutes) {
+        if (offsetMinutes % 1440 == 0) {
+            return offsetMinutes / 1440 + "天";
+        }
+        if (offsetMinutes == 60) {
+            return "一小时";
+        }
+        if (offsetMinutes % 60 == 0) {
+            return offsetMinutes / 60 + "小时";
+        }
+        return offsetMinutes + "分钟";
+    }
+}
@@ -0,0 +1,59 @@
+package com.nullworking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nullworking.repository.TaskRepository;
+
+/**
+ * 根据日志表重建任务的进度与最近活动时间
+ * 用于新增列后的一次性回填，或怀疑数据偏差时手动校正（设置 task.progress.rebuild-on-startup=true 后重启）
+ */
+@Service
+public class TaskProgressRebuildService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${task.progress.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${task.progress.rebuild-batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            int rows = rebuildAll();
+            System.out.println("Rebuilt task progress for " + rows + " tasks");
+        }
+    }
+
+    /**
+     * 按任务ID区间分批重建，每批一个短事务
+     * @return 更新的任务数
+     */
+    public int rebuildAll() {
+        Integer maxTaskId = taskRepository.findMaxTaskId();
+        if (maxTaskId == null) {
+            return 0;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        for (int fromId = 1; fromId <= maxTaskId; fromId += batchSize) {
+            int from = fromId;
+            int to = fromId + batchSize - 1;
+            Integer rows = transactionTemplate.execute(status -> taskRepository.rebuildProgressInRange(from, to));
+            total += rows != null ? rows : 0;
+        }
+        return total;
+    }
+}
@@ -1,28 +1,28 @@
 package com.nullworking.service;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.nullworking.common.ApiResponse;
 import com.nullworking.model.Task;
-import com.nullworking.model.TaskExecutorRelation;
 import com.nullworking.model.User;
 import com.nullworking.model.dto.TaskPublishRequest;
+import com.nullworking.model.dto.TaskSearchCriteria;
 import com.nullworking.model.dto.TaskUpdateRequest;
 import com.nullworking.repository.LogRepository;
 import com.nullworking.repository.TaskExecutorRelationRepository;
@@ -32,6 +32,15 @@ import com.nullworking.repository.UserRepository;
 @Service
 public class TaskService {
 
+    private static final int DEFAULT_TASK_PAGE_SIZE = 20;
+
+    private static final int MAX_TASK_PAGE_SIZE = 100;
+
+    private static final String INSERT_EXECUTOR_RELATION_SQL =
+            "INSERT INTO task_executor_relation (executor_id, task_id) VALUES (?, ?)";
+
+    private static final Set<String> TASK_SORT_FIELDS = Set.of("deadline", "priority", "creationTime");
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -41,9 +50,6 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private LogService logService;
-    
     @Autowired
     private LogRepository logRepository;
 
@@ -53,38 +59,16 @@ public class TaskService {
     @Autowired
     private PermissionService permissionService;
 
-    // 所有的业务逻辑将在这里实现
-
-    @Scheduled(fixedRate = 60000) 
-    @Transactional
-    public void scheduleDeadlineNotifications() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime oneHourLater = now.plus(1, ChronoUnit.HOURS);
+    @Autowired
+    private TaskDeadlineScheduler taskDeadlineScheduler;
 
-        List<Task> approachingDeadlineTasks = taskRepository.findByDeadlineBetweenAndIsDeadlineNotifiedFalseAndTaskStatusNot(
-            now, oneHourLater, (byte) 3
-        );
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
-        for (Task task : approachingDeadlineTasks) {
-            List<Integer> executorIds = taskExecutorRelationRepository.findAllExecutorIdsByTaskId(task.getTaskId());
-            Set<Integer> notifiedUsers = new HashSet<>();
+    @Autowired
+    private SearchIndexService searchIndexService;
 
-            for (Integer executorId : executorIds) {
-                if (!notifiedUsers.contains(executorId)) {
-                    String notificationContent = String.format("您参与的任务\"%s\"距离截止时间不足一小时，请尽快处理。", task.getTaskTitle());
-                    notificationService.createNotification(
-                        executorId,
-                        notificationContent,
-                        "task",
-                        task.getTaskId()
-                    );
-                    notifiedUsers.add(executorId);
-                }
-            }
-            task.setIsDeadlineNotified(true);
-            taskRepository.save(task);
-        }
-    }
+    // 所有的业务逻辑将在这里实现
 
     @Transactional
     public ApiResponse<String> deleteTask(Integer taskId, Integer userId) {
@@ -105,23 +89,13 @@ public class TaskService {
             }
             task.setTaskStatus((byte)3);
             taskRepository.save(task);
+            taskDeadlineScheduler.cancelAfterCommit(taskId);
 
             // 获取所有执行者并发送通知
             List<Integer> executorIds = taskExecutorRelationRepository.findAllExecutorIdsByTaskId(taskId);
-            Set<Integer> notifiedUsers = new HashSet<>();
-            // 通知所有执行者
-            for (Integer executorId : executorIds) {
-                if (!notifiedUsers.contains(executorId)) { // 避免重复通知创建者
-                    String notificationContent = String.format("您参与的任务\"%s\"已被关闭。", task.getTaskTitle());
-                    notificationService.createNotification(
-                        executorId,
-                        notificationContent,
-                        "task",
-                        task.getTaskId()
-                    );
-                    notifiedUsers.add(executorId);
-                }
-            }
+            // 通知所有执行者（同一用户只通知一次）
+            String notificationContent = String.format("您参与的任务\"%s\"已被关闭。", task.getTaskTitle());
+            notificationService.createNotifications(executorIds, notificationContent, "task", task.getTaskId());
 
             return ApiResponse.success("任务删除成功");
         } catch (Exception e) {
@@ -135,7 +109,7 @@ public class TaskService {
         List<Task> executingTasks = Collections.emptyList();
 
         if (participantType == null || "creator".equals(participantType)) {
-            List<Task> tasks = taskRepository.findByCreator_UserIdAndTaskStatusNot(userId, (byte) 3);
+            List<Task> tasks = taskRepository.findWithCreatorByCreatorIdAndTaskStatusNot(userId, (byte) 3);
             if (taskStatus != null) {
                 tasks = tasks.stream()
                         .filter(task -> task.getTaskStatus().equals(taskStatus))
@@ -148,8 +122,7 @@ public class TaskService {
             List<Integer> executingTaskIds = taskExecutorRelationRepository.findActiveTaskIdsByExecutor(userId);
             Set<Integer> executingIdSet = new HashSet<>(executingTaskIds);
             List<Task> tasks = executingIdSet.isEmpty() ? Collections.emptyList()
-                    : taskRepository.findAllById(executingIdSet).stream()
-                    .collect(Collectors.toList());
+                    : taskRepository.findWithCreatorByIds(executingIdSet);
             if (taskStatus != null) {
                 tasks = tasks.stream()
                         .filter(task -> task.getTaskStatus().equals(taskStatus))
@@ -167,8 +140,8 @@ public class TaskService {
         }
 
         Map<String, Object> data = new HashMap<>();
-        data.put("created", createdTasks.stream().map(this::toDtoWithExecutors).collect(Collectors.toList()));
-        data.put("participated", executingTasks.stream().map(this::toDtoWithExecutors).collect(Collectors.toList()));
+        data.put("created", toDtosWithExecutors(createdTasks));
+        data.put("participated", toDtosWithExecutors(executingTasks));
 
         return ApiResponse.success(data);
     }
@@ -186,7 +159,60 @@ public class TaskService {
             return ApiResponse.error(403, "无权限查看此任务");
         }
 
-        Map<String, Object> data = toDtoWithExecutors(task);
+        Map<String, Object> data = toDtosWithExecutors(Collections.singletonList(task)).get(0);
+        return ApiResponse.success(data);
+    }
+
+    /**
+     * 分页查询任务列表：过滤、排序与分页都在数据库完成，按 (排序字段, 任务ID) 做键集分页
+     * @param criteria 查询条件
+     * @param cursor 游标，格式为 "排序字段值_任务ID"，为空表示第一页
+     * @param size 每页条数，最大 {@value #MAX_TASK_PAGE_SIZE}
+     */
+    public ApiResponse<Map<String, Object>> queryTasks(TaskSearchCriteria criteria, String cursor, Integer size) {
+        if (criteria.getRole() != null && !"creator".equals(criteria.getRole()) && !"executor".equals(criteria.getRole())) {
+            return ApiResponse.error(400, "参与者类型只能为creator或executor");
+        }
+        if (criteria.getSortBy() == null) {
+            criteria.setSortBy("deadline");
+        }
+        if (!TASK_SORT_FIELDS.contains(criteria.getSortBy())) {
+            return ApiResponse.error(400, "排序字段只能为deadline、priority或creationTime");
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                String value = cursor.substring(0, separator);
+                criteria.setCursorValue("priority".equals(criteria.getSortBy()) ? (Object) Byte.valueOf(value) : LocalDateTime.parse(value));
+                criteria.setCursorId(Integer.valueOf(cursor.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                return ApiResponse.error(400, "游标格式错误");
+            }
+        }
+        int pageSize = size == null || size <= 0 ? DEFAULT_TASK_PAGE_SIZE : Math.min(size, MAX_TASK_PAGE_SIZE);
+
+        // 多取一条用于判断是否还有下一页
+        List<Task> tasks = taskRepository.searchTasks(criteria, pageSize + 1);
+        boolean hasMore = tasks.size() > pageSize;
+        if (hasMore) {
+            tasks = tasks.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Task last = tasks.get(tasks.size() - 1);
+            Object lastValue = switch (criteria.getSortBy()) {
+                case "priority" -> last.getPriority();
+                case "creationTime" -> last.getCreationTime();
+                default -> last.getDeadline();
+            };
+            nextCursor = lastValue + "_" + last.getTaskId();
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("tasks", toDtosWithExecutors(tasks));
+        data.put("nextCursor", nextCursor);
+        data.put("hasMore", hasMore);
         return ApiResponse.success(data);
     }
 
@@ -206,19 +232,30 @@ public class TaskService {
         return m;
     }
 
-    private Map<String, Object> toDtoWithExecutors(Task t) {
-        Map<String, Object> m = toDto(t);
-        List<String> executorNames = taskExecutorRelationRepository
-                .findAllExecutorIdsByTaskId(t.getTaskId())
-                .stream()
-                .map(id -> {
-                    return userRepository.findById(id).map(User::getRealName).orElse(null);
-                })
-                .filter(n -> n != null)
-                .collect(Collectors.toList());
-        m.put("executorNames", executorNames);
-        m.put("taskProgress", logService.getMaxCompletedTaskProgress(t.getTaskId())); // Add task progress
-        return m;
+    /**
+     * 批量转换任务列表：执行者姓名用一次 IN 查询取回，进度直接读取任务上维护的列，查询次数与任务数量无关
+     */
+    public List<Map<String, Object>> toDtosWithExecutors(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> taskIds = tasks.stream().map(Task::getTaskId).collect(Collectors.toList());
+
+        Map<Integer, List<String>> executorNamesByTask = new HashMap<>();
+        for (Object[] row : taskExecutorRelationRepository.findExecutorNamesByTaskIds(taskIds)) {
+            if (row[1] != null) {
+                executorNamesByTask.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        List<Map<String, Object>> result = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            Map<String, Object> m = toDto(t);
+            m.put("executorNames", executorNamesByTask.getOrDefault(t.getTaskId(), Collections.emptyList()));
+            m.put("taskProgress", t.getTaskProgress() != null ? t.getTaskProgress() : 0);
+            m.put("lastActivityTime", t.getLastActivityTime() != null ? t.getLastActivityTime().toString() : null);
+            result.add(m);
+        }
+        return result;
     }
 
     @Transactional
@@ -245,14 +282,19 @@ public class TaskService {
 
             boolean selfAssignOnly = executorIds.size() == 1 && executorIds.get(0).equals(creatorId);
 
-            // 验证执行者是否都存在
-            for (Integer executorId : request.getExecutorIds()) {
-                Optional<User> executorOpt = userRepository.findById(executorId);
-                if (executorOpt.isEmpty()) {
+            // 一次查询取回全部执行者（含角色），当前用户的权限集合也只查询一次
+            Map<Integer, User> executorsById = new HashMap<>();
+            for (User executor : userRepository.findWithRoleByUserIdIn(new HashSet<>(executorIds))) {
+                executorsById.put(executor.getUserId(), executor);
+            }
+            Set<String> creatorPermissions = selfAssignOnly ? Collections.emptySet() : permissionService.getPermissionNames(creatorId);
+            for (Integer executorId : executorIds) {
+                User executor = executorsById.get(executorId);
+                if (executor == null) {
                     return ApiResponse.error(404, "执行者ID " + executorId + " 不存在");
                 }
-                if (!selfAssignOnly && !permissionService.canAssignTaskToUser(creatorId, executorOpt.get())) {
-                    return ApiResponse.error(403, "无权限分配任务给 " + executorOpt.get().getRealName());
+                if (!selfAssignOnly && !permissionService.canAssignTaskToUser(creatorPermissions, executor)) {
+                    return ApiResponse.error(403, "无权限分配任务给 " + executor.getRealName());
                 }
             }
 
@@ -268,26 +310,17 @@ public class TaskService {
 
             // 保存任务
             Task savedTask = taskRepository.save(task);
-
-            // 创建执行者关联关系
-            for (Integer executorId : request.getExecutorIds()) {
-                User executor = userRepository.findById(executorId).get();
-                TaskExecutorRelation relation = new TaskExecutorRelation();
-                relation.setTask(savedTask);
-                relation.setExecutor(executor);
-                taskExecutorRelationRepository.save(relation);
-
-                // 如果执行者不是创建者，则创建通知
-                if (!executorId.equals(creatorId)) {
-                    String notificationContent = String.format("您收到了新任务：\"%s\"", savedTask.getTaskTitle());
-                    notificationService.createNotification(
-                        executorId,
-                        notificationContent,
-                        "task",
-                        savedTask.getTaskId()
-                    );
-                }
-            }
+            taskDeadlineScheduler.scheduleAfterCommit(savedTask);
+            searchIndexService.indexTaskAfterCommit(savedTask);
+
+            // 创建执行者关联关系（同一执行者只关联一次），批量写入
+            List<Integer> relationExecutorIds = executorIds.stream().distinct().collect(Collectors.toList());
+            insertExecutorRelations(savedTask.getTaskId(), relationExecutorIds);
+            List<Integer> notifyExecutorIds = relationExecutorIds.stream()
+                    .filter(executorId -> !executorId.equals(creatorId))
+                    .collect(Collectors.toList());
+            String notificationContent = String.format("您收到了新任务：\"%s\"", savedTask.getTaskTitle());
+            notificationService.createNotifications(notifyExecutorIds, notificationContent, "task", savedTask.getTaskId());
             
             Map<String, Object> data = new HashMap<>();
             data.put("taskId", savedTask.getTaskId());
@@ -298,6 +331,21 @@ public class TaskService {
         }
     }
 
+    /**
+     * 用一次 JDBC 批量插入写入任务-执行者关联
+     * 关联表主键为自增列，Hibernate 对 IDENTITY 主键无法合并插入，这里直接走 JDBC 批处理，与任务保存处于同一事务
+     */
+    private void insertExecutorRelations(Integer taskId, List<Integer> executorIds) {
+        if (executorIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EXECUTOR_RELATION_SQL, executorIds, executorIds.size(),
+                (ps, executorId) -> {
+                    ps.setInt(1, executorId);
+                    ps.setInt(2, taskId);
+                });
+    }
+
     @Transactional
     public ApiResponse<Map<String, Object>> updateTask(
             Integer taskId,
@@ -328,6 +376,12 @@ public class TaskService {
                 return ApiResponse.error(404, "任务已关闭");
             }
 
+            // 截止时间变更后重新发送截止提醒
+            if (!Objects.equals(task.getDeadline(), request.getDeadline())) {
+                task.setIsDeadlineNotified(false);
+                task.setRemindedOffsetMinutes(null);
+            }
+
             // 更新任务信息
             task.setTaskTitle(request.getTitle());
             task.setTaskContent(request.getContent());
@@ -336,20 +390,14 @@ public class TaskService {
 
             // 保存更新后的任务
             taskRepository.save(task);
+            taskDeadlineScheduler.scheduleAfterCommit(task);
+            searchIndexService.indexTaskAfterCommit(task);
 
             // 获取所有执行者并发送通知
-            List<Integer> executorIds = taskExecutorRelationRepository.findAllExecutorIdsByTaskId(taskId);
-            for (Integer executorId : executorIds) {
-                if (!executorId.equals(userId)) { // 不通知更新任务的本人
-                    String notificationContent = String.format("您参与的任务\"%s\"已被更新。", task.getTaskTitle());
-                    notificationService.createNotification(
-                        executorId,
-                        notificationContent,
-                        "task",
-                        task.getTaskId()
-                    );
-                }
-            }
+            List<Integer> executorIds = new ArrayList<>(taskExecutorRelationRepository.findAllExecutorIdsByTaskId(taskId));
+            executorIds.removeIf(userId::equals); // 不通知更新任务的本人
+            String notificationContent = String.format("您参与的任务\"%s\"已被更新。", task.getTaskTitle());
+            notificationService.createNotifications(executorIds, notificationContent, "task", task.getTaskId());
 
             Map<String, Object> data = new HashMap<>();
             data.put("taskId", task.getTaskId());
@@ -359,48 +407,4 @@ public class TaskService {
             return ApiResponse.error(500, "任务更新失败: " + e.getMessage());
         }
     }
-
-    /**
-     * 定时检查并更新过期未完成的任务为"已延期"状态
-     */
-    @Scheduled(fixedRate = 60000) // 每分钟执行一次
-    @Transactional
-    public void checkAndUpdateExpiredTasks() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Byte> excludeStatuses = Arrays.asList((byte)1 , (byte)2, (byte)3);
-        
-        // 查询所有：截止时间已过 + 状态为进行中的任务
-        List<Task> expiredTasks = taskRepository.findByDeadlineBeforeAndTaskStatusNotIn(now, excludeStatuses);
-        
-        for (Task task : expiredTasks) {
-            task.setTaskStatus((byte)1); // 设为"已延期"状态
-            taskRepository.save(task);
-            
-            // 可选：发送延期通知给创建者和执行者
-            sendExpireNotification(task);
-        }
-    }
-
-    /**
-     * 发送任务延期通知（可选功能）
-     */
-    private void sendExpireNotification(Task task) {
-        // 通知创建者
-        Integer creatorId = task.getCreator().getUserId();
-        String creatorMsg = String.format("您发布的任务\"%s\"已超过截止时间，已转为延期状态。", task.getTaskTitle());
-        notificationService.createNotification(creatorId, creatorMsg, "task", task.getTaskId());
-        
-        // 通知所有执行者
-        List<Integer> executorIds = taskExecutorRelationRepository.findAllExecutorIdsByTaskId(task.getTaskId());
-        Set<Integer> notifiedUsers = new HashSet<>(executorIds);
-        notifiedUsers.add(creatorId); // 避免重复通知创建者（如果创建者也是执行者）
-        
-        for (Integer executorId : executorIds) {
-            if (!notifiedUsers.contains(executorId)) {
-                String executorMsg = String.format("您参与的任务\"%s\"已超过截止时间，已转为延期状态。", task.getTaskTitle());
-                notificationService.createNotification(executorId, executorMsg, "task", task.getTaskId());
-                notifiedUsers.add(executorId);
-            }
-        }
-    }
-}
\ No newline at end of file
+}
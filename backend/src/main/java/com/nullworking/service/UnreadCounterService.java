@@ -0,0 +1,159 @@
+package com.nullworking.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.nullworking.repository.NotificationRepository;
+import com.nullworking.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 按用户维护未读通知数，角标查询只读内存
+ * 首次访问时用一条 GROUP BY 查询预热，之后随通知创建和标记已读在事务提交后增减；定时校正作为兜底。
+ * 计数保存在单个实例内存中，多实例部署时以各自的定时校正为准。
+ */
+@Service
+public class UnreadCounterService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Map<Integer, AtomicLong> counters;
+
+    private final Object warmLock = new Object();
+
+    // 校正查询进行期间的增减，查询结束后与查询结果合并；与查询结果可能有少量重叠，见 resync()
+    private volatile Map<Integer, Long> resyncDeltas;
+
+    /**
+     * 获取用户当前未读通知数
+     * @param userId 用户ID
+     */
+    public long getUnreadCount(Integer userId) {
+        AtomicLong counter = counters().get(userId);
+        return counter != null ? Math.max(0, counter.get()) : 0;
+    }
+
+    /**
+     * 新通知写入后调用，事务提交后各接收者未读数加一
+     * @param receiverIds 接收者ID
+     */
+    public void incrementAfterCommit(Collection<Integer> receiverIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            for (Integer receiverId : receiverIds) {
+                apply(receiverId, 1);
+            }
+        });
+    }
+
+    /**
+     * 通知被标记为已读后调用，事务提交后未读数减少
+     * @param userId 用户ID
+     * @param delta 本次实际由未读改为已读的条数
+     */
+    public void decrementAfterCommit(Integer userId, long delta) {
+        if (delta <= 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(userId, -delta));
+    }
+
+    /**
+     * 定时用 GROUP BY 结果校正，修复多实例部署等带来的偏差
+     * 查询期间提交的增减记录在 resyncDeltas 中，按用户原子地合并为“查询结果 + 期间增减”，不会丢失并发变更。
+     * 在查询读取前已提交、但提交后回调晚于开始记录增减才执行的变更会同时计入查询结果与增减，
+     * 该偏差只出现在校正瞬间的窄窗口内，由下一次校正修正。
+     */
+    @Scheduled(fixedDelayString = "${notification.unread-counter.resync-ms:600000}", initialDelayString = "${notification.unread-counter.resync-ms:600000}")
+    public void resync() {
+        Map<Integer, AtomicLong> current = counters;
+        if (current == null) {
+            return;
+        }
+        synchronized (warmLock) {
+            Map<Integer, Long> deltas = new ConcurrentHashMap<>();
+            resyncDeltas = deltas;
+            try {
+                Map<Integer, AtomicLong> snapshot = load();
+                Set<Integer> userIds = new HashSet<>(current.keySet());
+                userIds.addAll(snapshot.keySet());
+                for (Integer userId : userIds) {
+                    current.compute(userId, (k, counter) -> {
+                        AtomicLong loaded = snapshot.get(k);
+                        long value = (loaded != null ? loaded.get() : 0) + deltas.getOrDefault(k, 0L);
+                        if (counter == null) {
+                            counter = new AtomicLong();
+                        }
+                        counter.set(Math.max(0, value));
+                        return counter;
+                    });
+                }
+            } finally {
+                resyncDeltas = null;
+            }
+        }
+    }
+
+    private void apply(Integer userId, long delta) {
+        Map<Integer, AtomicLong> current = counters;
+        if (current == null) {
+            // 预热进行中则等待其完成；尚未预热时跳过，之后的预热查询会直接读到已提交的数据
+            synchronized (warmLock) {
+                current = counters;
+            }
+            if (current == null) {
+                return;
+            }
+        }
+        // 在 compute 内同时记录校正期间的增减，与校正对同一用户的合并互斥
+        current.compute(userId, (k, counter) -> {
+            Map<Integer, Long> deltas = resyncDeltas;
+            if (deltas != null) {
+                deltas.merge(k, delta, Long::sum);
+            }
+            if (counter == null) {
+                counter = new AtomicLong();
+            }
+            counter.set(Math.max(0, counter.get() + delta));
+            return counter;
+        });
+    }
+
+    private Map<Integer, AtomicLong> counters() {
+        Map<Integer, AtomicLong> current = counters;
+        if (current == null) {
+            synchronized (warmLock) {
+                current = counters;
+                if (current == null) {
+                    current = load();
+                    counters = current;
+                    Gauge.builder("notification.unread_counter.users", this, s -> s.counters.size()).register(meterRegistry);
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<Integer, AtomicLong> load() {
+        Map<Integer, AtomicLong> loaded = new ConcurrentHashMap<>();
+        List<Object[]> rows = notificationRepository.countUnreadGroupByReceiver();
+        for (Object[] row : rows) {
+            loaded.put((Integer) row[0], new AtomicLong(((Number) row[1]).longValue()));
+        }
+        return loaded;
+    }
+}
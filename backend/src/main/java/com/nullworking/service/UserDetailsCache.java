@@ -0,0 +1,137 @@
+package com.nullworking.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * JwtRequestFilter 使用的用户认证状态缓存（按用户名）
+ * 命中时无需查询数据库；用户离职、改密、重置密码或角色变更时由对应业务主动失效，TTL 作为兜底
+ */
+@Component
+public class UserDetailsCache {
+
+    private static class CacheEntry {
+        final UserDetails userDetails;
+        final long expireAt;
+        CacheEntry(UserDetails userDetails, long expireAt) { this.userDetails = userDetails; this.expireAt = expireAt; }
+    }
+
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Autowired
+    public UserDetailsCache(UserDetailsServiceImpl userDetailsService, MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.hitCounter = Counter.builder("auth.user_cache.requests").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("auth.user_cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictionCounter = Counter.builder("auth.user_cache.evictions").register(meterRegistry);
+        Gauge.builder("auth.user_cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 获取在职用户的认证信息，未命中或已过期时查询数据库
+     * @param userName 用户名
+     * @return 用户认证信息（不含密码）
+     * @throws UsernameNotFoundException 用户不存在或已离职
+     */
+    public UserDetails get(String userName) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CacheEntry entry = entries.get(userName);
+        if (entry != null && entry.expireAt > now) {
+            hitCounter.increment();
+            return entry.userDetails;
+        }
+        missCounter.increment();
+
+        UserDetails loaded = userDetailsService.loadUserByUsername(userName);
+        // 缓存中不保留密码哈希，过滤器只需要用户名与权限
+        UserDetails snapshot = new User(loaded.getUsername(), "", loaded.getAuthorities());
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(userName, new CacheEntry(snapshot, now + ttlSeconds * 1000));
+        return snapshot;
+    }
+
+    /**
+     * 使指定用户的缓存失效；处于事务中时在提交后再失效一次，避免并发请求把旧数据写回缓存
+     * @param userName 用户名
+     */
+    public void invalidate(String userName) {
+        if (userName == null) {
+            return;
+        }
+        entries.remove(userName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userName);
+                }
+            });
+        }
+    }
+
+    /**
+     * 清空全部缓存（如角色被修改或删除时）
+     */
+    public void invalidateAll() {
+        entries.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * 超出容量时先清理过期条目，仍然超出则再淘汰约十分之一
+     */
+    private void evict(long now) {
+        int removed = 0;
+        Iterator<Map.Entry<String, CacheEntry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().expireAt <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        it = entries.entrySet().iterator();
+        while (toRemove > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            toRemove--;
+            removed++;
+        }
+        evictionCounter.increment(removed);
+    }
+}
@@ -16,7 +16,6 @@ import com.nullworking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
@@ -25,6 +24,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Base64;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -53,6 +53,12 @@ public class UserService {
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @Value("${jwt.secret}")
     private String jwtSecret; // 复用JWT密钥作为加密密钥，不修改配置文件
 
@@ -193,8 +199,12 @@ public class UserService {
             }
             
             // 密码加密
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            String encodedPassword = encoder.encode(request.getPassword());
+            String encodedPassword;
+            try {
+                encodedPassword = passwordHashingService.encode(request.getPassword());
+            } catch (RejectedExecutionException e) {
+                return ApiResponse.error(503, "服务繁忙，请稍后重试");
+            }
             
             // 创建用户
             User user = new User();
@@ -288,6 +298,8 @@ public ApiResponse<Void> updateUser(Integer userId, UserUpdateRequest request) {
         // 注意：此处刻意不处理 userName 字段，禁止更新用户名
 
         userRepository.save(user);
+        // 角色可能已变更，清除该用户的认证缓存
+        userDetailsCache.invalidate(user.getUserName());
         return ApiResponse.success();
     } catch (Exception e) {
         return ApiResponse.error(500, "更新用户失败: " + e.getMessage());
@@ -326,6 +338,8 @@ public ApiResponse<Void> updateUser(Integer userId, UserUpdateRequest request) {
             user.setDepartment(headDepartment);
 
             userRepository.save(user);
+            // 离职用户立即失去登录态
+            userDetailsCache.invalidate(user.getUserName());
 
             return ApiResponse.success();
         } catch (Exception e) {
@@ -469,6 +483,22 @@ public ApiResponse<Void> updateUser(Integer userId, UserUpdateRequest request) {
                 .orElse(null);
     }
 
+    /**
+     * 批量获取用户的华为推送token，一次查询完成
+     * @param userIds 用户ID集合
+     * @return 用户ID到推送token的映射（不含未设置token的用户）
+     */
+    public Map<Integer, String> getHuaweiPushTokensByUserIds(Collection<Integer> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, String> tokens = new HashMap<>();
+        for (Object[] row : userRepository.findHuaweiPushTokensByUserIds(userIds)) {
+            tokens.put((Integer) row[0], (String) row[1]);
+        }
+        return tokens;
+    }
+
     /**
      * 修改用户密码
      * @param userId 用户ID
@@ -488,14 +518,17 @@ public ApiResponse<Void> updateUser(Integer userId, UserUpdateRequest request) {
             }
 
             User user = userOptional.get();
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
 
-            if (!encoder.matches(oldPassword, user.getPassword())) {
-                return ApiResponse.error(400, "原密码不正确");
+            try {
+                if (!passwordHashingService.matches(oldPassword, user.getPassword())) {
+                    return ApiResponse.error(400, "原密码不正确");
+                }
+                user.setPassword(passwordHashingService.encode(newPassword));
+            } catch (RejectedExecutionException e) {
+                return ApiResponse.error(503, "服务繁忙，请稍后重试");
             }
-
-            user.setPassword(encoder.encode(newPassword));
             userRepository.save(user);
+            userDetailsCache.invalidate(user.getUserName());
 
             return ApiResponse.success();
         } catch (Exception e) {
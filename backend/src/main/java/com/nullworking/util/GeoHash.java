@@ -0,0 +1,150 @@
+package com.nullworking.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 标准 Geohash 编码与矩形区域覆盖，与 MySQL ST_GeoHash(经度, 纬度, 长度) 的结果一致
+ * 相同前缀的 Geohash 落在同一网格内，按前缀做 LIKE 'xxx%' 即可走索引范围扫描。
+ */
+public final class GeoHash {
+
+    /** 日志位置存储的 Geohash 长度，9 位约为 4.8m × 4.8m */
+    public static final int PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private GeoHash() {
+    }
+
+    /**
+     * 编码坐标
+     * @return Geohash，坐标为空或超出范围时返回 null
+     */
+    public static String encode(Double latitude, Double longitude, int precision) {
+        if (latitude == null || longitude == null || !isValid(latitude, longitude)) {
+            return null;
+        }
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lngBit = true;
+        int bits = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (lngBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lngBit = !lngBit;
+            if (++bits == 5) {
+                hash.append(BASE32[ch]);
+                bits = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * 计算覆盖矩形区域的 Geohash 前缀：选取网格数不超过 maxCells 的最长前缀长度，返回与区域相交的全部网格
+     * 网格可能超出区域边界，调用方还需按经纬度范围精确过滤。不处理跨越 ±180° 经线的区域。
+     */
+    public static List<String> cover(double minLat, double minLng, double maxLat, double maxLng, int maxCells) {
+        for (int precision = PRECISION; precision > 1; precision--) {
+            if (countCells(minLat, minLng, maxLat, maxLng, precision) <= maxCells) {
+                return cells(minLat, minLng, maxLat, maxLng, precision);
+            }
+        }
+        return cells(minLat, minLng, maxLat, maxLng, 1);
+    }
+
+    /**
+     * 两点间的球面距离（米）
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 球面距离对应的 haversine 值 sin²(d/2R)，距离不超过 d 等价于两点的 haversine 值不超过它，便于在查询中比较
+     */
+    public static double haversineOf(double distanceMeters) {
+        double half = Math.sin(distanceMeters / (2 * EARTH_RADIUS_METERS));
+        return half * half;
+    }
+
+    /**
+     * 圆形区域的外接矩形
+     * @return {minLat, minLng, maxLat, maxLng}
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double dLat = Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLng = cosLat < 1e-6 ? 180 : Math.toDegrees(radiusMeters / (EARTH_RADIUS_METERS * cosLat));
+        return new double[] {
+                Math.max(-90, latitude - dLat),
+                Math.max(-180, longitude - dLng),
+                Math.min(90, latitude + dLat),
+                Math.min(180, longitude + dLng)
+        };
+    }
+
+    public static boolean isValid(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private static long countCells(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        int latBits = precision * 5 / 2;
+        long rows = cellIndex(maxLat, -90, 180, latBits) - cellIndex(minLat, -90, 180, latBits) + 1;
+        long cols = cellIndex(maxLng, -180, 360, lngBits) - cellIndex(minLng, -180, 360, lngBits) + 1;
+        return rows * cols;
+    }
+
+    private static List<String> cells(double minLat, double minLng, double maxLat, double maxLng, int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        int latBits = precision * 5 / 2;
+        double cellHeight = 180.0 / (1L << latBits);
+        double cellWidth = 360.0 / (1L << lngBits);
+        long fromRow = cellIndex(minLat, -90, 180, latBits);
+        long toRow = cellIndex(maxLat, -90, 180, latBits);
+        long fromCol = cellIndex(minLng, -180, 360, lngBits);
+        long toCol = cellIndex(maxLng, -180, 360, lngBits);
+
+        List<String> result = new ArrayList<>();
+        for (long row = fromRow; row <= toRow; row++) {
+            for (long col = fromCol; col <= toCol; col++) {
+                // 取网格中心点编码，得到该网格的前缀
+                result.add(encode(-90 + (row + 0.5) * cellHeight, -180 + (col + 0.5) * cellWidth, precision));
+            }
+        }
+        return result;
+    }
+
+    private static long cellIndex(double value, double min, double span, int bits) {
+        long count = 1L << bits;
+        long index = (long) Math.floor((value - min) / span * count);
+        return Math.max(0, Math.min(count - 1, index));
+    }
+}
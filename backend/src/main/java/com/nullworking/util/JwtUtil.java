@@ -1,6 +1,5 @@
 package com.nullworking.util;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -9,11 +8,18 @@ import java.util.function.Function;
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+
+import com.nullworking.common.JwtPrincipal;
+
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -21,12 +27,28 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
+    /**
+     * JwtRequestFilter 解析出的 JwtPrincipal 在请求属性中的键名
+     */
+    public static final String PRINCIPAL_ATTRIBUTE = JwtUtil.class.getName() + ".PRINCIPAL";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // 签名密钥与解析器只在启动时构建一次，避免每次请求都重新 Base64 解码和构造 HMAC 密钥
+    private SecretKey signKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwtParser = Jwts.parser().verifyWith(signKey).build();
+    }
+
     public String generateToken(Integer userId, String username) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -39,18 +61,24 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * 验证签名与有效期并解析出当前用户，整个请求只需调用一次
+     * @param token JWT 字符串
+     * @return 解析后的用户信息
+     * @throws io.jsonwebtoken.JwtException 签名无效或已过期
+     */
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(claims.get("userId", Integer.class), claims.getSubject(), claims.getIssuedAt());
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     public String extractUsername(String token) {
@@ -71,15 +99,33 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().verifyWith((SecretKey)getSignKey()).build().parseSignedClaims(token).getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * 获取当前请求中已认证的用户，优先读取 JwtRequestFilter 放入 SecurityContext 的结果
+     * @param request 当前请求
+     * @return 当前用户，未登录时返回 null
+     */
+    public static JwtPrincipal currentPrincipal(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        if (request != null && request.getAttribute(PRINCIPAL_ATTRIBUTE) instanceof JwtPrincipal principal) {
+            return principal;
+        }
+        return null;
     }
 
     // New static method to extract userId from HttpServletRequest
     public static Integer extractUserIdFromRequest(HttpServletRequest request, JwtUtil jwtUtil) {
+        // 过滤器已经解析过的请求直接复用结果，不再重复验签
+        JwtPrincipal principal = currentPrincipal(request);
+        if (principal != null) {
+            return principal.getUserId();
+        }
+
         String authorizationHeader = request.getHeader("Authorization");
         String jwt = null;
         Integer userId = null;
@@ -0,0 +1,184 @@
+package com.nullworking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.model.User;
+import com.nullworking.model.dto.TaskPublishRequest;
+
+/**
+ * 发布任务时执行者关联走 JDBC 批量写入：1、10、100 个执行者发往数据库的语句次数相同
+ * 统计的是应用侧的执行次数；MySQL 需在连接串中开启 rewriteBatchedStatements=true，驱动才会把一批合并为一条多值 INSERT。
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task_publish_batch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskService.class, TaskPublishBatchTest.StatementCountingConfig.class})
+class TaskPublishBatchTest {
+
+    /** 执行语句次数（execute* / executeBatch），一次批处理计为一次 */
+    private static final AtomicInteger EXECUTIONS = new AtomicInteger();
+
+    /** 加入批处理的行数 */
+    private static final AtomicInteger BATCHED_ROWS = new AtomicInteger();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private PermissionService permissionService;
+
+    @MockitoBean
+    private TaskDeadlineScheduler taskDeadlineScheduler;
+
+    @MockitoBean
+    private SearchIndexService searchIndexService;
+
+    private int userSeq;
+
+    @Test
+    void executorRelationsUseConstantStatementCount() {
+        when(permissionService.canAssignTaskToUser(anySet(), any(User.class))).thenReturn(true);
+        User creator = persistUser();
+
+        Map<Integer, Integer> executionsBySize = new HashMap<>();
+        for (int size : new int[] {1, 10, 100}) {
+            List<Integer> executorIds = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                executorIds.add(persistUser().getUserId());
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            EXECUTIONS.set(0);
+            BATCHED_ROWS.set(0);
+            ApiResponse<Map<String, Object>> response = taskService.publishTask(creator.getUserId(), request(executorIds));
+
+            assertThat(response.getCode()).isEqualTo(200);
+            Integer taskId = (Integer) response.getData().get("taskId");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM task_executor_relation WHERE task_id = ?", Integer.class, taskId)).isEqualTo(size);
+            assertThat(BATCHED_ROWS.get()).isEqualTo(size);
+            executionsBySize.put(size, EXECUTIONS.get());
+        }
+
+        assertThat(executionsBySize.get(10)).isEqualTo(executionsBySize.get(1));
+        assertThat(executionsBySize.get(100)).isEqualTo(executionsBySize.get(1));
+    }
+
+    private TaskPublishRequest request(List<Integer> executorIds) {
+        TaskPublishRequest request = new TaskPublishRequest();
+        request.setTitle("批量任务");
+        request.setContent("执行者数量 " + executorIds.size());
+        request.setPriority(1);
+        request.setExecutorIds(executorIds);
+        request.setDeadline(LocalDateTime.now().plusDays(7));
+        return request;
+    }
+
+    private User persistUser() {
+        userSeq++;
+        User user = new User();
+        user.setUserName("user" + userSeq);
+        user.setRealName("用户" + userSeq);
+        user.setPhoneNumber("1390000" + userSeq);
+        user.setCreationTime(LocalDateTime.now());
+        user.setStatus((byte) 0);
+        return entityManager.persist(user);
+    }
+
+    /**
+     * 包装数据源，统计发往数据库的语句执行次数
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                        Object result = method.invoke(target, args);
+                        return result instanceof Connection connection ? proxy(Connection.class, connection, this::countStatement) : result;
+                    });
+                }
+
+                private Object countStatement(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+                    Object result = method.invoke(target, args);
+                    if (!(result instanceof Statement statement)) {
+                        return result;
+                    }
+                    Class<?> type = method.getReturnType();
+                    return proxy(type, statement, (s, m, a) -> {
+                        if (m.getName().startsWith("execute")) {
+                            EXECUTIONS.incrementAndGet();
+                        } else if (m.getName().equals("addBatch")) {
+                            BATCHED_ROWS.incrementAndGet();
+                        }
+                        return m.invoke(s, a);
+                    });
+                }
+            };
+        }
+
+        @FunctionalInterface
+        interface Invocation {
+            Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> T proxy(Class<?> type, Object target, Invocation invocation) {
+            InvocationHandler handler = (p, method, args) -> {
+                try {
+                    return invocation.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.nullworking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.nullworking.common.ApiResponse;
+import com.nullworking.model.Task;
+import com.nullworking.model.TaskExecutorRelation;
+import com.nullworking.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 任务列表的查询次数与任务数量无关：1 个任务与 N 个任务执行的 SQL 语句数相同
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:task_query_count;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TaskService.class)
+class TaskServiceQueryCountTest {
+
+    private static final int MANY = 30;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private PermissionService permissionService;
+
+    @MockitoBean
+    private TaskDeadlineScheduler taskDeadlineScheduler;
+
+    @MockitoBean
+    private SearchIndexService searchIndexService;
+
+    private Statistics statistics;
+
+    private int userSeq;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createdTasksUseConstantQueryCount() {
+        User singleCreator = persistUser();
+        User manyCreator = persistUser();
+        createTasks(singleCreator, 1);
+        createTasks(manyCreator, MANY);
+
+        long single = countStatements(singleCreator, "creator", 1, 2);
+        long many = countStatements(manyCreator, "creator", MANY, 2);
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @Test
+    void participatedTasksUseConstantQueryCount() {
+        User creator = persistUser();
+        User singleExecutor = persistUser();
+        User manyExecutor = persistUser();
+        for (Task task : createTasks(creator, 1)) {
+            persistRelation(task, singleExecutor);
+        }
+        for (Task task : createTasks(creator, MANY)) {
+            persistRelation(task, manyExecutor);
+        }
+
+        long single = countStatements(singleExecutor, null, 1, 3);
+        long many = countStatements(manyExecutor, null, MANY, 3);
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long countStatements(User user, String participantType, int expectedTasks, int expectedExecutors) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ApiResponse<Map<String, Object>> response = taskService.listUserTasks(user.getUserId(), null, participantType);
+
+        long statements = statistics.getPrepareStatementCount();
+        String key = "creator".equals(participantType) ? "created" : "participated";
+        List<Map<String, Object>> tasks = (List<Map<String, Object>>) response.getData().get(key);
+        assertThat(tasks).hasSize(expectedTasks);
+        assertThat(tasks).allSatisfy(task -> {
+            assertThat(task.get("creatorName")).isNotNull();
+            assertThat((List<String>) task.get("executorNames")).hasSize(expectedExecutors);
+        });
+        return statements;
+    }
+
+    private List<Task> createTasks(User creator, int count) {
+        // 每个任务两名执行者，确保执行者姓名按任务聚合
+        User executorA = persistUser();
+        User executorB = persistUser();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setCreator(creator);
+            task.setTaskTitle("任务" + i);
+            task.setTaskContent("内容" + i);
+            task.setPriority((byte) 1);
+            task.setTaskStatus((byte) 0);
+            task.setCreationTime(LocalDateTime.now());
+            task.setDeadline(LocalDateTime.now().plusDays(7));
+            entityManager.persist(task);
+            persistRelation(task, executorA);
+            persistRelation(task, executorB);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private void persistRelation(Task task, User executor) {
+        TaskExecutorRelation relation = new TaskExecutorRelation();
+        relation.setTask(task);
+        relation.setExecutor(executor);
+        entityManager.persist(relation);
+    }
+
+    private User persistUser() {
+        userSeq++;
+        User user = new User();
+        user.setUserName("user" + userSeq);
+        user.setRealName("用户" + userSeq);
+        user.setPhoneNumber("1380000" + userSeq);
+        user.setCreationTime(LocalDateTime.now());
+        user.setStatus((byte) 0);
+        return entityManager.persist(user);
+    }
+}